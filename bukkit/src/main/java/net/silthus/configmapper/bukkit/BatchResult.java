@@ -0,0 +1,35 @@
+package net.silthus.configmapper.bukkit;
+
+import lombok.Value;
+import lombok.experimental.Accessors;
+import net.silthus.configmapper.ConfigurationException;
+
+import java.util.Map;
+
+/**
+ * The result of mapping all child sections of a configuration section with
+ * {@link BukkitConfigMap#mapChildren(org.bukkit.configuration.ConfigurationSection, java.util.concurrent.Executor, java.util.concurrent.Executor)}.
+ *
+ * @param <TConfig> the type of the config
+ */
+@Value
+@Accessors(fluent = true)
+public class BatchResult<TConfig> {
+
+    /**
+     * The created config objects mapped by the key of their section in the order of the parent section.
+     */
+    Map<String, TConfig> results;
+    /**
+     * The errors of all sections that could not be mapped by the key of the section.
+     */
+    Map<String, ConfigurationException> errors;
+
+    /**
+     * @return true if all child sections were mapped without errors
+     */
+    public boolean successful() {
+
+        return errors.isEmpty();
+    }
+}
@@ -1,19 +1,28 @@
 package net.silthus.configmapper.bukkit;
 
 import lombok.EqualsAndHashCode;
+import lombok.NonNull;
 import lombok.Value;
 import net.silthus.configmapper.ConfigFieldInformation;
 import net.silthus.configmapper.ConfigUtil;
 import net.silthus.configmapper.ConfigurationException;
 import net.silthus.configmapper.ConfigMap;
+import net.silthus.configmapper.ConfigSchema;
+import net.silthus.configmapper.FieldNameFormatters;
 import net.silthus.configmapper.KeyValuePair;
+import net.silthus.configmapper.ScanMode;
 import org.bukkit.configuration.ConfigurationSection;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 @Value
 @EqualsAndHashCode(callSuper = true)
@@ -21,7 +30,12 @@ public class BukkitConfigMap<TConfig> extends ConfigMap<TConfig> {
 
     public static <TConfig> BukkitConfigMap<TConfig> of(Class<TConfig> configClass) throws ConfigurationException {
 
-        return new BukkitConfigMap<>(configClass, ConfigUtil.getConfigFields(configClass));
+        return new BukkitConfigMap<>(ConfigSchema.of(configClass), new ArrayList<>());
+    }
+
+    public static <TConfig> BukkitConfigMap<TConfig> of(Class<TConfig> configClass, ScanMode mode) throws ConfigurationException {
+
+        return new BukkitConfigMap<>(configClass, ConfigUtil.getConfigFields(configClass, FieldNameFormatters.LOWER_UNDERSCORE, mode));
     }
 
     public static <TConfig> BukkitConfigMap<TConfig> of(Class<TConfig> configClass, Supplier<TConfig> supplier) throws ConfigurationException {
@@ -48,20 +62,162 @@ public class BukkitConfigMap<TConfig> extends ConfigMap<TConfig> {
         super(configClass, configFields);
     }
 
-    private BukkitConfigMap(Class<TConfig> configClass, Map<String, ConfigFieldInformation> configFields, List<KeyValuePair> keyValuePairs) {
+    private BukkitConfigMap(ConfigSchema<TConfig> schema, List<KeyValuePair> keyValuePairs) {
 
-        super(configClass, configFields, keyValuePairs);
+        super(schema, keyValuePairs);
+    }
+
+    @Override
+    protected BukkitConfigMap<TConfig> copy(ConfigSchema<TConfig> schema, List<KeyValuePair> keyValuePairs) {
+
+        return new BukkitConfigMap<>(schema, keyValuePairs);
     }
 
     public BukkitConfigMap<TConfig> with(ConfigurationSection config) {
 
-        Stream<KeyValuePair> configValues = config.getKeys(true).stream()
-                .map(s -> KeyValuePair.of(s, config.get(s)));
+        Set<String> keys = config.getKeys(true);
+        List<KeyValuePair> values = new ArrayList<>(keys.size() + keyValuePairs().size());
+        for (String key : keys) {
+            Object value = config.get(key);
+            if (value instanceof ConfigurationSection && schema().findField(key) != null) {
+                value = toConfigValue(value);
+            }
+            values.add(KeyValuePair.of(key, value));
+        }
+        for (KeyValuePair pair : keyValuePairs()) {
+            String key = pair.getKey().orElse(null);
+            if (key == null || !keys.contains(key)) values.add(pair);
+        }
+
+        return (BukkitConfigMap<TConfig>) derive(schema(), values);
+    }
+
+    /**
+     * Maps every child section of the given parent section to a new config object off the main thread.
+     * <p>The values of all declared config fields are copied from the child sections on the calling thread,
+     * which should be the server main thread. The copied values are then mapped in parallel on the worker executor
+     * and the result is completed on the main thread executor, e.g. {@code runnable -> Bukkit.getScheduler().runTask(plugin, runnable)}.
+     * <p>The key value pairs of this config map are applied to every child, but are overridden by the values of the child section.
+     * The config sources of this config map are resolved on the worker threads and must be thread safe.
+     * Child sections that cannot be mapped are reported as errors of the result and do not fail the other sections.
+     *
+     * @param parent the section that contains one child section per config object
+     * @param worker the executor used to map the child sections
+     * @param mainThread the executor used to complete the result on the main thread
+     * @return a future that is completed on the main thread once all child sections were mapped
+     */
+    public CompletableFuture<BatchResult<TConfig>> mapChildren(@NonNull ConfigurationSection parent, @NonNull Executor worker, @NonNull Executor mainThread) {
+
+        Map<String, List<KeyValuePair>> snapshots = new LinkedHashMap<>();
+        for (String key : parent.getKeys(false)) {
+            ConfigurationSection child = parent.getConfigurationSection(key);
+            if (child != null) {
+                snapshots.put(key, snapshot(child));
+            }
+        }
+
+        List<String> keys = new ArrayList<>(snapshots.keySet());
+        List<CompletableFuture<TConfig>> futures = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            List<KeyValuePair> values = snapshots.get(key);
+            futures.add(CompletableFuture.supplyAsync(() -> mapChild(values), worker));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .handleAsync((unused, failure) -> {
+                    Map<String, TConfig> results = new LinkedHashMap<>();
+                    Map<String, ConfigurationException> errors = new LinkedHashMap<>();
+                    for (int i = 0; i < keys.size(); i++) {
+                        try {
+                            results.put(keys.get(i), futures.get(i).join());
+                        } catch (CompletionException e) {
+                            errors.put(keys.get(i), toConfigurationException(keys.get(i), e.getCause() != null ? e.getCause() : e));
+                        }
+                    }
+                    return new BatchResult<>(results, errors);
+                }, mainThread);
+    }
+
+    private List<KeyValuePair> snapshot(ConfigurationSection section) {
+
+        List<KeyValuePair> sectionValues = new ArrayList<>(configFields().size());
+        Set<ConfigFieldInformation> sectionFields = new HashSet<>();
+        for (ConfigFieldInformation field : configFields().values()) {
+            Object value = section.get(field.identifier());
+            for (int i = 0; value == null && i < field.aliases().length; i++) {
+                value = section.get(field.aliases()[i]);
+            }
+            if (value != null) {
+                sectionValues.add(KeyValuePair.of(field.identifier(), toConfigValue(value)));
+                sectionFields.add(field);
+            }
+        }
+
+        List<KeyValuePair> values = new ArrayList<>(keyValuePairs().size() + sectionValues.size());
+        for (KeyValuePair pair : keyValuePairs()) {
+            if (pair.getKey().isEmpty()) values.add(pair);
+        }
+        for (KeyValuePair pair : keyValuePairs()) {
+            String key = pair.getKey().orElse(null);
+            if (key != null && !sectionFields.contains(schema().findField(key))) values.add(pair);
+        }
+        values.addAll(sectionValues);
+        return values;
+    }
+
+    private TConfig mapChild(List<KeyValuePair> values) {
+
+        return derive(schema(), values).instance(null).create();
+    }
 
-        List<KeyValuePair> values = Stream.concat(configValues, keyValuePairs().stream())
-                .distinct()
-                .collect(Collectors.toList());
+    private static ConfigurationException toConfigurationException(String key, Throwable error) {
+
+        return error instanceof ConfigurationException ? (ConfigurationException) error
+                : new ConfigurationException("Unable to map the config section " + key + ": " + error.getMessage(), error);
+    }
+
+    /**
+     * Copies configuration sections into maps and lists into new lists, which allows mapping
+     * the value independently of the section, e.g. into {@code Map<String, NestedConfig>} fields.
+     *
+     * @param value the value of a configuration section
+     * @return a copy of the value that does not reference the configuration section
+     */
+    static Object toConfigValue(Object value) {
+
+        if (value instanceof ConfigurationSection) {
+            ConfigurationSection section = (ConfigurationSection) value;
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String key : section.getKeys(false)) {
+                values.put(key, toConfigValue(section.get(key)));
+            }
+            return values;
+        }
+        if (value instanceof List) {
+            List<Object> values = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                values.add(toConfigValue(element));
+            }
+            return values;
+        }
+        return value;
+    }
 
-        return (BukkitConfigMap<TConfig>) new BukkitConfigMap<>(configClass(), configFields(), values).instance(instance());
+    /**
+     * Writes the values of all config fields of the given config object into the configuration section.
+     * <p>Nested config fields are written to their dotted path inside the section.
+     *
+     * @param config the config object that should be written
+     * @param section the section the values are written to
+     * @param skipDefaults true if fields that still hold their default value should be skipped
+     * @return the given configuration section
+     * @throws ConfigurationException if a value could not be read
+     */
+    public ConfigurationSection writeTo(TConfig config, ConfigurationSection section, boolean skipDefaults) throws ConfigurationException {
+
+        for (KeyValuePair pair : toKeyValuePairs(config, skipDefaults)) {
+            section.set(pair.getKey().orElseThrow(), pair.getValue().orElseThrow());
+        }
+        return section;
     }
 }
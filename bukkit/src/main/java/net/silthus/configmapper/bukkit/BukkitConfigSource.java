@@ -0,0 +1,66 @@
+package net.silthus.configmapper.bukkit;
+
+import lombok.NonNull;
+import net.silthus.configmapper.ConfigFieldInformation;
+import net.silthus.configmapper.ConfigSchema;
+import net.silthus.configmapper.ConfigSource;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.Optional;
+
+/**
+ * A {@link ConfigSource} that looks up the declared config fields directly inside a {@link ConfigurationSection}
+ * instead of copying all of its keys into the config map.
+ */
+public final class BukkitConfigSource implements ConfigSource {
+
+    /**
+     * @param section the section the values are read from
+     * @return a source with the default priority
+     */
+    public static BukkitConfigSource of(@NonNull ConfigurationSection section) {
+
+        return of(section, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * @param section the section the values are read from
+     * @param priority the priority of the source
+     * @return a source with the given priority
+     */
+    public static BukkitConfigSource of(@NonNull ConfigurationSection section, int priority) {
+
+        return new BukkitConfigSource(section, priority);
+    }
+
+    private final ConfigurationSection section;
+    private final int priority;
+
+    private BukkitConfigSource(ConfigurationSection section, int priority) {
+        this.section = section;
+        this.priority = priority;
+    }
+
+    @Override
+    public Optional<Object> get(@NonNull String key) {
+
+        return Optional.ofNullable(BukkitConfigMap.toConfigValue(section.get(key)));
+    }
+
+    @Override
+    public Optional<Object> get(@NonNull ConfigSchema<?> schema, @NonNull ConfigFieldInformation field) {
+
+        Optional<Object> value = ConfigSource.super.get(schema, field);
+        if (value.isPresent() || !schema.normalizeKeys()) return value;
+        for (String key : section.getKeys(true)) {
+            if (schema.findField(key) == field) return get(key);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int priority() {
+
+        return priority;
+    }
+}
@@ -2,11 +2,17 @@ package net.silthus.configmapper.bukkit;
 
 import lombok.Data;
 import lombok.SneakyThrows;
+import net.silthus.configmapper.AllocationMeter;
 import net.silthus.configmapper.ConfigOption;
+import net.silthus.configmapper.KeyValuePair;
 import org.bukkit.configuration.MemoryConfiguration;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class BukkitConfigMapTest {
@@ -30,6 +36,141 @@ class BukkitConfigMapTest {
         ).contains("foobar", 10);
     }
 
+    @Test
+    @DisplayName("should write config object to configuration section")
+    void shouldWriteConfigToSection() {
+
+        BukkitConfig config = new BukkitConfig();
+        config.setRequired("foobar");
+
+        MemoryConfiguration section = new MemoryConfiguration();
+        BukkitConfigMap.of(BukkitConfig.class).writeTo(config, section, true);
+
+        assertThat(section.getKeys(true)).containsOnly("required");
+        assertThat(section.get("required")).isEqualTo("foobar");
+    }
+
+    @Test
+    @DisplayName("should resolve config fields from a configuration section source")
+    void shouldResolveFieldsFromSectionSource() {
+
+        MemoryConfiguration defaults = new MemoryConfiguration();
+        defaults.set("required", "default");
+        defaults.set("val", 7);
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("required", "foobar");
+
+        BukkitConfig result = BukkitConfigMap.of(BukkitConfig.class)
+                .with(BukkitConfigSource.of(defaults), BukkitConfigSource.of(config, 10))
+                .create();
+
+        assertThat(result).extracting(
+                BukkitConfig::getRequired,
+                BukkitConfig::getVal
+        ).contains("foobar", 7);
+    }
+
+    @Test
+    @DisplayName("should resolve normalized keys from a configuration section source")
+    void shouldResolveNormalizedKeysFromSectionSource() {
+
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("Required", "foobar");
+        config.set("VAL", 7);
+
+        BukkitConfig result = BukkitConfigMap.of(BukkitConfig.class)
+                .normalizeKeys()
+                .with(BukkitConfigSource.of(config))
+                .create();
+
+        assertThat(result).extracting(BukkitConfig::getRequired, BukkitConfig::getVal)
+                .containsExactly("foobar", 7);
+    }
+
+    @Test
+    @DisplayName("should map child sections off the main thread and complete on the main thread")
+    void shouldMapChildSectionsInParallel() throws Exception {
+
+        MemoryConfiguration config = new MemoryConfiguration();
+        for (int i = 0; i < 100; i++) {
+            config.set("items.item" + i + ".required", "item" + i);
+            config.set("items.item" + i + ".val", i);
+        }
+        config.set("items.broken.val", 1);
+
+        ExecutorService worker = Executors.newFixedThreadPool(4);
+        BlockingQueue<Runnable> mainThread = new LinkedBlockingQueue<>();
+        try {
+            CompletableFuture<BatchResult<BukkitConfig>> future = BukkitConfigMap.of(BukkitConfig.class)
+                    .mapChildren(config.getConfigurationSection("items"), worker, mainThread::add);
+
+            Runnable tick = mainThread.poll(10, TimeUnit.SECONDS);
+            assertThat(tick).isNotNull();
+            assertThat(future).isNotDone();
+            tick.run();
+
+            BatchResult<BukkitConfig> result = future.getNow(null);
+            assertThat(result.results()).hasSize(100);
+            assertThat(result.results().get("item42")).extracting(BukkitConfig::getRequired, BukkitConfig::getVal)
+                    .containsExactly("item42", 42);
+            assertThat(result.errors()).containsOnlyKeys("broken");
+        } finally {
+            worker.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should override the key value pairs of the config map with the values of the child sections")
+    void shouldOverrideMapPairsWithChildValues() throws Exception {
+
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("items.first.val", 1);
+        config.set("items.second.name", "second");
+
+        BlockingQueue<Runnable> mainThread = new LinkedBlockingQueue<>();
+        BukkitConfigMap<PositionedConfig> configMap = (BukkitConfigMap<PositionedConfig>) BukkitConfigMap.of(PositionedConfig.class)
+                .with(KeyValuePair.of(null, "default"), KeyValuePair.of("val", 99));
+        CompletableFuture<BatchResult<PositionedConfig>> future = configMap
+                .mapChildren(config.getConfigurationSection("items"), Runnable::run, mainThread::add);
+        mainThread.take().run();
+
+        BatchResult<PositionedConfig> result = future.getNow(null);
+        assertThat(result.errors()).isEmpty();
+        assertThat(result.results().get("first")).extracting(PositionedConfig::getName, PositionedConfig::getVal)
+                .containsExactly("default", 1);
+        assertThat(result.results().get("second")).extracting(PositionedConfig::getName, PositionedConfig::getVal)
+                .containsExactly("second", 99);
+    }
+
+    @Test
+    @DisplayName("should map sections into maps of nested configs")
+    void shouldMapSectionsIntoNestedConfigMap() {
+
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("kits.starter.required", "starter");
+        config.set("kits.vip.required", "vip");
+        config.set("kits.vip.val", 20);
+
+        KitsConfig result = BukkitConfigMap.of(KitsConfig.class).with(config).create();
+
+        assertThat(result.getKits()).containsOnlyKeys("starter", "vip");
+        assertThat(result.getKits().get("vip")).extracting(BukkitConfig::getRequired, BukkitConfig::getVal)
+                .containsExactly("vip", 20);
+    }
+
+    @Test
+    @DisplayName("should bind configuration sections within the allocation budget")
+    void shouldBindSectionsWithinBudget() {
+
+        MemoryConfiguration config = new MemoryConfiguration();
+        config.set("required", "foobar");
+        config.set("val", 10);
+        BukkitConfigMap<BukkitConfig> configMap = BukkitConfigMap.of(BukkitConfig.class);
+        BukkitConfig target = new BukkitConfig();
+
+        AllocationMeter.assertAllocatesAtMost("with(ConfigurationSection).applyTo", 2_048, () -> configMap.with(config).applyTo(target));
+    }
+
     @Data
     public static class BukkitConfig {
 
@@ -38,4 +179,20 @@ class BukkitConfigMapTest {
         @ConfigOption
         private int val = 5;
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class KitsConfig {
+
+        @ConfigOption
+        private Map<String, BukkitConfig> kits = new HashMap<>();
+    }
+
+    @Data
+    public static class PositionedConfig {
+
+        @ConfigOption(position = 0, required = true)
+        private String name;
+        @ConfigOption
+        private int val = 5;
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * A cache of values that are computed once per class, like the {@link ConfigSchema}s or the generated
+ * implementations of config interfaces.
+ * <p>The values are stored in a {@link ClassValue} and are therefore only reachable through their class.
+ * They never keep a class or its class loader alive and are collected together with the class.
+ * <p>Every class with a cached value is additionally tracked by its class loader with weak references,
+ * which allows dropping all values of a class loader at once with {@link #invalidate(ClassLoader)},
+ * e.g. when a plugin is disabled.
+ *
+ * @param <TValue> the type of the cached values
+ */
+final class ClassCache<TValue> {
+
+    private static final List<ClassCache<?>> CACHES = new CopyOnWriteArrayList<>();
+    private static final Map<ClassLoader, Map<Class<?>, Boolean>> CLASSES = new WeakHashMap<>();
+    private static final Set<ConversionCache> CONVERSION_CACHES = Collections.newSetFromMap(new WeakHashMap<>());
+
+    /**
+     * Creates a new cache that computes its values with the given function.
+     *
+     * @param compute the function computing the value of a class
+     * @param <TValue> the type of the cached values
+     * @return the new cache
+     */
+    static <TValue> ClassCache<TValue> of(Function<Class<?>, TValue> compute) {
+
+        ClassCache<TValue> cache = new ClassCache<>(compute);
+        CACHES.add(cache);
+        return cache;
+    }
+
+    /**
+     * Tracks the given conversion cache, so that its values are dropped by {@link #invalidate(ClassLoader)}.
+     * <p>The conversion cache is only referenced weakly.
+     *
+     * @param cache the conversion cache
+     */
+    static void track(ConversionCache cache) {
+
+        synchronized (CONVERSION_CACHES) {
+            CONVERSION_CACHES.add(cache);
+        }
+    }
+
+    /**
+     * Removes the cached values of all classes that were loaded by the given class loader or one of its children.
+     *
+     * @param classLoader the class loader whose classes should be removed
+     * @return the number of classes whose cached values were removed
+     */
+    static int invalidate(ClassLoader classLoader) {
+
+        List<Class<?>> classes = new ArrayList<>();
+        synchronized (CLASSES) {
+            Iterator<Map.Entry<ClassLoader, Map<Class<?>, Boolean>>> iterator = CLASSES.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<ClassLoader, Map<Class<?>, Boolean>> entry = iterator.next();
+                if (!isLoadedBy(entry.getKey(), classLoader)) continue;
+                classes.addAll(entry.getValue().keySet());
+                iterator.remove();
+            }
+        }
+
+        for (Class<?> type : classes) {
+            for (ClassCache<?> cache : CACHES) {
+                cache.values.remove(type);
+            }
+        }
+
+        List<ConversionCache> conversionCaches;
+        synchronized (CONVERSION_CACHES) {
+            conversionCaches = new ArrayList<>(CONVERSION_CACHES);
+        }
+        for (ConversionCache cache : conversionCaches) {
+            cache.invalidate(classLoader);
+        }
+
+        return classes.size();
+    }
+
+    /**
+     * @param classLoader the class loader of a class, null for the bootstrap class loader
+     * @param parent the class loader that should be checked
+     * @return true if the class loader is the parent or one of its children
+     */
+    static boolean isLoadedBy(ClassLoader classLoader, ClassLoader parent) {
+
+        for (ClassLoader current = classLoader; current != null; current = current.getParent()) {
+            if (current == parent) return true;
+        }
+        return false;
+    }
+
+    private static void register(Class<?> type) {
+
+        ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null || type.isHidden()) return;
+        synchronized (CLASSES) {
+            CLASSES.computeIfAbsent(classLoader, loader -> new WeakHashMap<>()).put(type, Boolean.TRUE);
+        }
+    }
+
+    private final ClassValue<TValue> values;
+
+    private ClassCache(Function<Class<?>, TValue> compute) {
+        this.values = new ClassValue<>() {
+            @Override
+            protected TValue computeValue(Class<?> type) {
+                TValue value = compute.apply(type);
+                register(type);
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Gets the cached value of the given class and computes it on first access.
+     *
+     * @param type the class
+     * @return the cached value
+     */
+    TValue get(Class<?> type) {
+
+        return values.get(type);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.util.Optional;
+
+/**
+ * Validates a converted config value, e.g. against the range of a {@link Min} and {@link Max} annotation.
+ * <p>Constraints are compiled once per config field by {@link ConfigConstraints} when the config class is scanned
+ * and are checked in the same pass that converts the values.
+ */
+@FunctionalInterface
+public interface ConfigConstraint {
+
+    /**
+     * @param value the converted config value, never null
+     * @return the reason why the value is invalid or an empty optional if the value is valid
+     */
+    Optional<String> validate(Object value);
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles the constraint annotations {@link Min}, {@link Max}, {@link Matches} and {@link NotEmpty}
+ * of a config field into a single {@link ConfigConstraint}.
+ */
+public final class ConfigConstraints {
+
+    private ConfigConstraints() {
+    }
+
+    /**
+     * Compiles the constraints of the given field.
+     *
+     * @param field the config field
+     * @return the compiled constraint or null if the field has no constraint annotations
+     * @throws ConfigurationException if a constraint cannot be used with the type of the field
+     *                                or if the pattern of {@link Matches} is invalid
+     */
+    public static ConfigConstraint of(@NonNull Field field) throws ConfigurationException {
+
+        return of(field, field.getType(), field.getName());
+    }
+
+    /**
+     * Compiles the constraints of the given annotated element, e.g. the getter of a config interface.
+     *
+     * @param element the field or method carrying the constraint annotations
+     * @param type the type of the config value
+     * @param name the name of the config field used in error messages
+     * @return the compiled constraint or null if the element has no constraint annotations
+     * @throws ConfigurationException if a constraint cannot be used with the type
+     *                                or if the pattern of {@link Matches} is invalid
+     */
+    static ConfigConstraint of(AnnotatedElement element, Class<?> type, String name) throws ConfigurationException {
+
+        List<ConfigConstraint> constraints = new ArrayList<>();
+
+        Min min = element.getAnnotation(Min.class);
+        if (min != null) {
+            checkMeasurable(type, name, Min.class);
+            double minimum = min.value();
+            constraints.add(value -> {
+                double measure = measure(value);
+                return measure < minimum
+                        ? Optional.of(describe(value) + " must be at least " + format(minimum) + " but was " + format(measure))
+                        : Optional.empty();
+            });
+        }
+
+        Max max = element.getAnnotation(Max.class);
+        if (max != null) {
+            checkMeasurable(type, name, Max.class);
+            double maximum = max.value();
+            constraints.add(value -> {
+                double measure = measure(value);
+                return measure > maximum
+                        ? Optional.of(describe(value) + " must be at most " + format(maximum) + " but was " + format(measure))
+                        : Optional.empty();
+            });
+        }
+
+        Matches matches = element.getAnnotation(Matches.class);
+        if (matches != null) {
+            if (!CharSequence.class.isAssignableFrom(type)) {
+                throw new ConfigurationException("@Matches can only be used on string fields, but \"" + name + "\" is a " + type.getSimpleName());
+            }
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(matches.value());
+            } catch (PatternSyntaxException e) {
+                throw new ConfigurationException("Invalid @Matches pattern on \"" + name + "\": " + e.getMessage(), e);
+            }
+            constraints.add(value -> pattern.matcher((CharSequence) value).matches()
+                    ? Optional.empty()
+                    : Optional.of("value \"" + value + "\" must match the pattern " + pattern.pattern()));
+        }
+
+        if (element.isAnnotationPresent(NotEmpty.class)) {
+            if (!hasLength(type)) {
+                throw new ConfigurationException("@NotEmpty can only be used on strings, arrays, collections and maps, but \"" + name + "\" is a " + type.getSimpleName());
+            }
+            constraints.add(value -> measure(value) == 0 ? Optional.of("value must not be empty") : Optional.empty());
+        }
+
+        if (constraints.isEmpty()) return null;
+        if (constraints.size() == 1) return constraints.get(0);
+
+        ConfigConstraint[] compiled = constraints.toArray(new ConfigConstraint[0]);
+        return value -> {
+            for (ConfigConstraint constraint : compiled) {
+                Optional<String> violation = constraint.validate(value);
+                if (violation.isPresent()) return violation;
+            }
+            return Optional.empty();
+        };
+    }
+
+    private static void checkMeasurable(Class<?> type, String name, Class<?> annotation) {
+
+        boolean number = (type.isPrimitive() && type != boolean.class && type != char.class) || Number.class.isAssignableFrom(type);
+        if (!number && !hasLength(type)) {
+            throw new ConfigurationException("@" + annotation.getSimpleName() + " can only be used on numbers, strings, arrays, collections and maps, but \""
+                    + name + "\" is a " + type.getSimpleName());
+        }
+    }
+
+    private static boolean hasLength(Class<?> type) {
+
+        return CharSequence.class.isAssignableFrom(type)
+                || type.isArray()
+                || Collection.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type);
+    }
+
+    private static double measure(Object value) {
+
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        if (value instanceof CharSequence) return ((CharSequence) value).length();
+        if (value instanceof Collection) return ((Collection<?>) value).size();
+        if (value instanceof Map) return ((Map<?, ?>) value).size();
+        if (value.getClass().isArray()) return Array.getLength(value);
+        throw new ConfigurationException("Unable to validate the value " + value + " of type " + value.getClass().getSimpleName());
+    }
+
+    private static String describe(Object value) {
+
+        return value instanceof Number ? "value" : "length";
+    }
+
+    private static String format(double value) {
+
+        return value == Math.rint(value) && !Double.isInfinite(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
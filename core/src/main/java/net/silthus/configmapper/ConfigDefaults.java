@@ -0,0 +1,137 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * A precomputed plan that restores the default values of all config fields inside an existing config object.
+ * <p>The accessors and default values are collected once per {@link ConfigSchema} into flat arrays.
+ * Mutable defaults, like arrays, lists, sets and maps, are copied on every reset so that pooled
+ * config objects never share them.
+ */
+final class ConfigDefaults {
+
+    private static final int KEEP = 0;
+    private static final int ARRAY = 1;
+    private static final int LIST = 2;
+    private static final int SET = 3;
+    private static final int MAP = 4;
+    private static final int SORTED_SET = 5;
+    private static final int SORTED_MAP = 6;
+
+    static ConfigDefaults of(Collection<ConfigFieldInformation> configFields) throws ConfigurationException {
+
+        int size = configFields.size();
+        FieldAccessor[] accessors = new FieldAccessor[size];
+        Object[] values = new Object[size];
+        int[] copyModes = new int[size];
+
+        int i = 0;
+        for (ConfigFieldInformation field : configFields) {
+            if (field.accessor() == null || !field.accessor().writable()) {
+                throw new ConfigurationException("Unable to reset the config field " + field.identifier() + ". It is not writable.");
+            }
+            accessors[i] = field.accessor();
+            values[i] = field.defaultValue();
+            copyModes[i] = getCopyMode(field.type(), values[i]);
+            i++;
+        }
+
+        return new ConfigDefaults(accessors, values, copyModes);
+    }
+
+    /**
+     * Gets the default value of the given config field.
+     * <p>Mutable defaults are copied the same way as by {@link #reset(Object)}, so the caller can never
+     * change the shared default value of the config field.
+     *
+     * @param field the config field
+     * @return the default value or a copy of it
+     */
+    static Object defaultValue(ConfigFieldInformation field) {
+
+        Object value = field.defaultValue();
+        return copy(value, getCopyMode(field.type(), value));
+    }
+
+    /**
+     * Copies a mutable value of the given config field, e.g. a converted value that is bound to more than one config object.
+     *
+     * @param field the config field
+     * @param value the value of the config field
+     * @return a copy of the value or the value itself if it is immutable
+     */
+    static Object copy(ConfigFieldInformation field, Object value) {
+
+        return copy(value, getCopyMode(field.type(), value));
+    }
+
+    private static int getCopyMode(Class<?> type, Object value) {
+
+        if (value == null) return KEEP;
+        if (value.getClass().isArray()) return Array.getLength(value) > 0 ? ARRAY : KEEP;
+        if (value instanceof IntList || value instanceof LongList || value instanceof DoubleList) return KEEP;
+        if (value instanceof List && type.isAssignableFrom(ArrayList.class)) return LIST;
+        if (value instanceof SortedSet && type.isAssignableFrom(TreeSet.class)) return SORTED_SET;
+        if (value instanceof Set && type.isAssignableFrom(LinkedHashSet.class)) return SET;
+        if (value instanceof SortedMap && type.isAssignableFrom(TreeMap.class)) return SORTED_MAP;
+        if (value instanceof Map && type.isAssignableFrom(LinkedHashMap.class)) return MAP;
+        return KEEP;
+    }
+
+    private final FieldAccessor[] accessors;
+    private final Object[] values;
+    private final int[] copyModes;
+
+    private ConfigDefaults(FieldAccessor[] accessors, Object[] values, int[] copyModes) {
+        this.accessors = accessors;
+        this.values = values;
+        this.copyModes = copyModes;
+    }
+
+    void reset(Object config) throws ConfigurationException {
+
+        for (int i = 0; i < accessors.length; i++) {
+            accessors[i].set(config, copy(values[i], copyModes[i]));
+        }
+    }
+
+    private static Object copy(Object value, int copyMode) {
+
+        switch (copyMode) {
+            case ARRAY:
+                int length = Array.getLength(value);
+                Object array = Array.newInstance(value.getClass().getComponentType(), length);
+                System.arraycopy(value, 0, array, 0, length);
+                return array;
+            case LIST:
+                return new ArrayList<>((List<?>) value);
+            case SET:
+                return new LinkedHashSet<>((Set<?>) value);
+            case MAP:
+                return new LinkedHashMap<>((Map<?, ?>) value);
+            case SORTED_SET:
+                return new TreeSet<>((SortedSet<?>) value);
+            case SORTED_MAP:
+                return new TreeMap<>((SortedMap<?, ?>) value);
+            default:
+                return value;
+        }
+    }
+}
@@ -16,12 +16,15 @@
 
 package net.silthus.configmapper;
 
-import lombok.NonNull;
-import lombok.Value;
-import lombok.With;
+import lombok.*;
 import lombok.experimental.Accessors;
 
+import java.lang.reflect.Type;
+import java.util.Optional;
+import java.util.function.Supplier;
+
 @Value
+@AllArgsConstructor
 @Accessors(fluent = true)
 public class ConfigFieldInformation implements Comparable<ConfigFieldInformation> {
 
@@ -39,7 +42,79 @@ public class ConfigFieldInformation implements Comparable<ConfigFieldInformation
     int position;
     String[] description;
     boolean required;
-    Object defaultValue;
+    /**
+     * Provides the default value of the field.
+     * <p>The value is either captured while scanning or lazily on first access, see {@link ScanMode}.
+     */
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Supplier<Object> defaultValueSupplier;
+    /**
+     * The precompiled accessor used to read and write the field inside the root config object.
+     * <p>Is null if the information was not created by scanning a config class.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    FieldAccessor accessor;
+    /**
+     * Alternative identifiers of the config object.
+     * Uses the same dotted annotation as the identifier.
+     */
+    String[] aliases;
+    /**
+     * The generic type of the field including the type arguments of collections and maps.
+     */
+    @EqualsAndHashCode.Exclude
+    Type genericType;
+    /**
+     * The converter compiled for the generic type of the field.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    TypeConverter converter;
+    /**
+     * The constraint compiled from the validation annotations of the field or null if the field has none.
+     */
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    ConfigConstraint constraint;
+
+    public ConfigFieldInformation(String identifier, String name, Class<?> type, int position, String[] description, boolean required, Object defaultValue) {
+
+        this(identifier, name, type, position, description, required, Lazy.value(defaultValue), null, new String[0], type, TypeConverters.of(type), null);
+    }
+
+    /**
+     * Converts the given raw config value into the type of the field.
+     *
+     * @param value the raw config value
+     * @return the converted value
+     * @throws ConfigurationException if the value cannot be converted
+     */
+    public Object convert(@NonNull Object value) throws ConfigurationException {
+
+        return converter.convert(value);
+    }
+
+    /**
+     * Checks the converted value against the constraints of the field.
+     *
+     * @param value the converted config value
+     * @return the reason why the value is invalid or an empty optional if the value is valid
+     */
+    public Optional<String> validate(@NonNull Object value) {
+
+        return constraint == null ? Optional.empty() : constraint.validate(value);
+    }
+
+    /**
+     * @return the default value of the field
+     */
+    public Object defaultValue() {
+
+        return defaultValueSupplier.get();
+    }
 
     @Override
     public int compareTo(@NonNull ConfigFieldInformation o) {
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.*;
+
+/**
+ * A compressed trie over the dotted identifiers of a config schema.
+ * <p>The index is built once per {@link ConfigSchema} and answers prefix queries, e.g. for tab completion,
+ * without copying the config field map. Every node keeps the fields below it sorted by
+ * {@link ConfigFieldInformation#compareTo(ConfigFieldInformation)}, so all returned lists are
+ * unmodifiable views of the index.
+ */
+public final class ConfigKeyIndex implements Iterable<ConfigFieldInformation> {
+
+    /**
+     * Builds a new index over the identifiers of the given config fields.
+     *
+     * @param configFields the config fields that should be indexed
+     * @return the index of the config fields
+     */
+    public static ConfigKeyIndex of(@NonNull Collection<ConfigFieldInformation> configFields) {
+
+        ConfigFieldInformation[] entries = configFields.toArray(new ConfigFieldInformation[0]);
+        Arrays.sort(entries, Comparator.comparing(ConfigFieldInformation::identifier));
+        return new ConfigKeyIndex(entries.length == 0 ? new Node("", null, new char[0], new Node[0], List.of()) : build(entries, 0, entries.length, 0));
+    }
+
+    private static Node build(ConfigFieldInformation[] entries, int from, int to, int depth) {
+
+        String first = entries[from].identifier();
+        String last = entries[to - 1].identifier();
+        int prefixLength = depth;
+        while (prefixLength < first.length() && prefixLength < last.length() && first.charAt(prefixLength) == last.charAt(prefixLength)) {
+            prefixLength++;
+        }
+
+        int i = from;
+        ConfigFieldInformation value = null;
+        if (first.length() == prefixLength) {
+            value = entries[i++];
+        }
+
+        List<Node> children = new ArrayList<>();
+        while (i < to) {
+            char c = entries[i].identifier().charAt(prefixLength);
+            int j = i;
+            while (j < to && entries[j].identifier().charAt(prefixLength) == c) j++;
+            children.add(build(entries, i, j, prefixLength));
+            i = j;
+        }
+
+        char[] keys = new char[children.size()];
+        for (int k = 0; k < keys.length; k++) {
+            keys[k] = children.get(k).label.charAt(0);
+        }
+
+        ConfigFieldInformation[] subtree = Arrays.copyOfRange(entries, from, to);
+        Arrays.sort(subtree);
+
+        return new Node(
+                first.substring(depth, prefixLength),
+                value,
+                keys,
+                children.toArray(new Node[0]),
+                Collections.unmodifiableList(Arrays.asList(subtree))
+        );
+    }
+
+    private final Node root;
+
+    private ConfigKeyIndex(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @return the number of indexed config fields
+     */
+    public int size() {
+
+        return root.subtree.size();
+    }
+
+    /**
+     * Gets the config field with the given identifier.
+     *
+     * @param identifier the full dotted identifier of the config field
+     * @return the config field or an empty optional if the schema does not declare the identifier
+     */
+    public Optional<ConfigFieldInformation> get(@NonNull CharSequence identifier) {
+
+        Node node = root;
+        int pos = 0;
+        while (node != null) {
+            int matched = match(node, identifier, pos);
+            if (matched < node.label.length()) return Optional.empty();
+            pos += matched;
+            if (pos == identifier.length()) return Optional.ofNullable(node.value);
+            node = node.child(identifier.charAt(pos));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets all config fields whose identifier starts with the given prefix, e.g. {@code database.}
+     * or a partially typed key.
+     *
+     * @param prefix the prefix of the identifiers
+     * @return an unmodifiable view of all matching config fields sorted by their natural order
+     */
+    public List<ConfigFieldInformation> withPrefix(@NonNull CharSequence prefix) {
+
+        Node node = root;
+        int pos = 0;
+        while (node != null) {
+            int matched = match(node, prefix, pos);
+            pos += matched;
+            if (pos == prefix.length()) return node.subtree;
+            if (matched < node.label.length()) return List.of();
+            node = node.child(prefix.charAt(pos));
+        }
+        return List.of();
+    }
+
+    /**
+     * Finds the config field with the longest identifier that is either equal to the given key
+     * or a parent path of it, e.g. {@code kits} for the key {@code kits.starter.items}.
+     *
+     * @param key the dotted key that should be matched
+     * @return the config field with the longest matching identifier or an empty optional
+     */
+    public Optional<ConfigFieldInformation> longestPrefixMatch(@NonNull CharSequence key) {
+
+        ConfigFieldInformation result = null;
+        Node node = root;
+        int pos = 0;
+        while (node != null) {
+            int matched = match(node, key, pos);
+            if (matched < node.label.length()) break;
+            pos += matched;
+            if (node.value != null && (pos == key.length() || key.charAt(pos) == '.')) {
+                result = node.value;
+            }
+            if (pos == key.length()) break;
+            node = node.child(key.charAt(pos));
+        }
+        return Optional.ofNullable(result);
+    }
+
+    /**
+     * @return an iterator over all config fields sorted by their natural order
+     */
+    @Override
+    public Iterator<ConfigFieldInformation> iterator() {
+
+        return root.subtree.iterator();
+    }
+
+    private static int match(Node node, CharSequence key, int pos) {
+
+        String label = node.label;
+        int i = 0;
+        while (i < label.length() && pos + i < key.length() && label.charAt(i) == key.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private final String label;
+        private final ConfigFieldInformation value;
+        private final char[] keys;
+        private final Node[] children;
+        private final List<ConfigFieldInformation> subtree;
+
+        private Node(String label, ConfigFieldInformation value, char[] keys, Node[] children, List<ConfigFieldInformation> subtree) {
+            this.label = label;
+            this.value = value;
+            this.keys = keys;
+            this.children = children;
+            this.subtree = subtree;
+        }
+
+        private Node child(char c) {
+
+            int index = Arrays.binarySearch(keys, c);
+            return index < 0 ? null : children[index];
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.Collection;
+
+/**
+ * A precomputed open addressing hash table that resolves config keys and their aliases to config fields.
+ * <p>If the table normalizes keys, the case of all characters and the separators {@code _}, {@code -} and spaces
+ * are ignored while matching. This makes {@code Pool-Size}, {@code poolSize}, {@code POOL_SIZE} and {@code pool_size}
+ * resolve to the same field, regardless which {@link FieldNameFormatters} created its identifier.
+ * Dots that separate nested config objects are always significant.
+ * <p>Lookups hash and compare the given {@link CharSequence} directly and never allocate.
+ */
+public final class ConfigKeyTable {
+
+    /**
+     * Builds a new table over the identifiers and aliases of the given config fields.
+     *
+     * @param configFields the config fields that should be resolved by the table
+     * @param normalizeKeys true if the case and separators of keys should be ignored
+     * @return the lookup table
+     * @throws ConfigurationException if two config fields share the same key
+     */
+    public static ConfigKeyTable of(@NonNull Collection<ConfigFieldInformation> configFields, boolean normalizeKeys) throws ConfigurationException {
+
+        int keyCount = 0;
+        for (ConfigFieldInformation field : configFields) {
+            keyCount += 1 + field.aliases().length;
+        }
+        int capacity = Integer.highestOneBit(Math.max(4, keyCount * 2 - 1)) << 1;
+
+        ConfigKeyTable table = new ConfigKeyTable(capacity, normalizeKeys);
+        for (ConfigFieldInformation field : configFields) {
+            table.put(field.identifier(), field);
+            for (String alias : field.aliases()) {
+                table.put(alias, field);
+            }
+        }
+        return table;
+    }
+
+    private final boolean normalizeKeys;
+    private final int mask;
+    private final int[] hashes;
+    private final String[] keys;
+    private final ConfigFieldInformation[] values;
+
+    private ConfigKeyTable(int capacity, boolean normalizeKeys) {
+        this.normalizeKeys = normalizeKeys;
+        this.mask = capacity - 1;
+        this.hashes = new int[capacity];
+        this.keys = new String[capacity];
+        this.values = new ConfigFieldInformation[capacity];
+    }
+
+    /**
+     * @return true if the case and separators of keys are ignored
+     */
+    public boolean normalizeKeys() {
+
+        return normalizeKeys;
+    }
+
+    /**
+     * Resolves the config field of the given key or alias.
+     *
+     * @param key the key that should be resolved
+     * @return the config field or null if no field matches the key
+     */
+    public ConfigFieldInformation get(@NonNull CharSequence key) {
+
+        int hash = hash(key);
+        for (int i = hash & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == hash && matches(keys[i], key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    private void put(String key, ConfigFieldInformation field) {
+
+        int hash = hash(key);
+        int i = hash & mask;
+        for (; keys[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == hash && matches(keys[i], key)) {
+                if (values[i] == field) return;
+                throw new ConfigurationException("The config key \"" + key + "\" of \"" + field.identifier()
+                        + "\" conflicts with the config field \"" + values[i].identifier() + "\".");
+            }
+        }
+        hashes[i] = hash;
+        keys[i] = key;
+        values[i] = field;
+    }
+
+    private int hash(CharSequence key) {
+
+        int hash = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (normalizeKeys) {
+                if (isSeparator(c)) continue;
+                c = Character.toLowerCase(c);
+            }
+            hash = 31 * hash + c;
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private boolean matches(String key, CharSequence input) {
+
+        if (!normalizeKeys) {
+            return key.contentEquals(input);
+        }
+
+        int i = 0;
+        int j = 0;
+        while (true) {
+            while (i < key.length() && isSeparator(key.charAt(i))) i++;
+            while (j < input.length() && isSeparator(input.charAt(j))) j++;
+            if (i == key.length() || j == input.length()) {
+                return i == key.length() && j == input.length();
+            }
+            if (Character.toLowerCase(key.charAt(i)) != Character.toLowerCase(input.charAt(j))) {
+                return false;
+            }
+            i++;
+            j++;
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+
+        return c == '_' || c == '-' || c == ' ';
+    }
+}
@@ -25,8 +25,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * The ConfigMap holds information about all fields and their type inside your config class.
@@ -54,6 +52,9 @@ public class ConfigMap<TConfig> {
      * <p>Only fields annotated with @{@link ConfigOption} will be cataloged or sub classes that
      * have the {@code @ConfigOption} annotation.
      *
+     * <p>The class is only scanned once and the schema is shared with all other config maps of the class,
+     * see {@link ConfigSchema#of(Class)} and {@link SchemaPrewarmer}.
+     *
      * @param configClass the config class that should be analyzed for configured fiels
      * @return a ConfigMap of all fields inside the given class
      * @throws ConfigurationException if the class cannot be instantiated (e.g. no public constructor)
@@ -61,7 +62,65 @@ public class ConfigMap<TConfig> {
      */
     public static <TConfig> ConfigMap<TConfig> of(Class<TConfig> configClass) {
 
-        return of(configClass, ConfigUtil.getConfigFields(configClass));
+        return of(ConfigSchema.of(configClass));
+    }
+
+    /**
+     * Scans the given config class using the provided {@link ScanMode}.
+     * <p>Use {@link ScanMode#LAZY} if your config class or its nested config objects are expensive to create.
+     * No instance will then be created while scanning and the default values are read from a single
+     * shared prototype when they are first needed.
+     *
+     * @param configClass the config class that should be analyzed for configured fiels
+     * @param mode the mode used to capture the default values of the config fields
+     * @param <TConfig> the type of the config
+     * @return a ConfigMap of all fields inside the given class
+     * @throws ConfigurationException if the config class contains invalid field mappings
+     * @see ConfigMap#of(Class)
+     */
+    public static <TConfig> ConfigMap<TConfig> of(Class<TConfig> configClass, ScanMode mode) {
+
+        return of(configClass, ConfigUtil.getConfigFields(configClass, FieldNameFormatters.LOWER_UNDERSCORE, mode));
+    }
+
+    /**
+     * Creates a new ConfigMap for the given config interface.
+     * <p>The config fields are the getters of the interface. Abstract getters without parameters are
+     * always config fields and default methods become config fields with their result as default value
+     * if they are annotated with {@link ConfigOption}. The {@code get} and {@code is} prefixes of the
+     * getters are removed, e.g. {@code getMaxPlayers()} is mapped to {@code max_players}.
+     * <p>The created config objects are instances of an implementation that is generated once per
+     * interface. Every config value is stored in a final field and returned by a plain field read,
+     * which makes the config objects immutable and thread safe.
+     *
+     * @param configInterface the interface of the config
+     * @param <TConfig> the type of the config
+     * @return a ConfigMap of all getters of the interface
+     * @throws ConfigurationException if the type is no interface, declares methods that are no getters
+     *                                or if the implementation could not be generated
+     */
+    public static <TConfig> ConfigMap<TConfig> ofInterface(@NonNull Class<TConfig> configInterface) {
+
+        if (!configInterface.isInterface() || configInterface.isAnnotation()) {
+            throw new ConfigurationException("\"" + configInterface.getSimpleName() + "\" is not an interface. Use ConfigMap.of(Class) for config classes.");
+        }
+        return of(ConfigSchema.of(configInterface));
+    }
+
+    /**
+     * Drops everything config-mapper cached about the classes of the given class loader and its children.
+     * <p>The schemas, converters and generated implementations are cached per class and never keep a class
+     * or its class loader alive, so they do not leak reloaded plugins even without calling this method.
+     * {@link ConversionCache}s are different: they hold the plugin's types, e.g. its enums, and the converted
+     * values strongly until they are evicted. Invalidate the class loader when a plugin is disabled to remove
+     * these values from all conversion caches and to release the other cached values right away.
+     *
+     * @param classLoader the class loader whose classes should be dropped, e.g. the class loader of a plugin
+     * @return the number of classes whose cached values were dropped
+     */
+    public static int invalidate(@NonNull ClassLoader classLoader) {
+
+        return ClassCache.invalidate(classLoader);
     }
 
     /**
@@ -106,10 +165,24 @@ public class ConfigMap<TConfig> {
         return new ConfigMap<>(configClass, configFields);
     }
 
-    Class<TConfig> configClass;
-    Map<String, ConfigFieldInformation> configFields;
+    /**
+     * Creates a new ConfigMap that shares the given schema and all tables derived from it.
+     *
+     * @param schema the schema of the config class
+     * @param <TConfig> the type of the config
+     * @return the config map of the schema
+     */
+    public static <TConfig> ConfigMap<TConfig> of(ConfigSchema<TConfig> schema) {
+        return new ConfigMap<>(schema, new ArrayList<>());
+    }
+
+    ConfigSchema<TConfig> schema;
     List<KeyValuePair> keyValuePairs;
     @NonFinal TConfig instance;
+    /**
+     * The config sources ordered by their precedence.
+     */
+    @NonFinal List<ConfigSource> sources = List.of();
 
     @SuppressWarnings("unchecked")
     protected ConfigMap(TConfig config, Map<String, ConfigFieldInformation> configFields) {
@@ -118,25 +191,108 @@ public class ConfigMap<TConfig> {
     }
 
     protected ConfigMap(Class<TConfig> configClass, Map<String, ConfigFieldInformation> configFields) {
-        this.configClass = configClass;
-        this.configFields = Map.copyOf(configFields);
-        this.keyValuePairs = List.copyOf(new ArrayList<>());
+        this(configClass, configFields, new ArrayList<>());
     }
 
     protected ConfigMap(Class<TConfig> configClass, Map<String, ConfigFieldInformation> configFields, List<KeyValuePair> keyValuePairs) {
-        this.configClass = configClass;
-        this.configFields = Map.copyOf(configFields);
+        this(ConfigSchema.of(configClass, configFields), keyValuePairs);
+    }
+
+    protected ConfigMap(ConfigSchema<TConfig> schema, List<KeyValuePair> keyValuePairs) {
+        this.schema = schema;
         this.keyValuePairs = List.copyOf(keyValuePairs);
     }
 
+    /**
+     * Creates a new ConfigMap of the same type that shares the given schema.
+     * <p>Subclasses must override this method to make sure methods like {@link #with(KeyValuePair...)}
+     * return their own type.
+     *
+     * @param schema the schema of the new config map
+     * @param keyValuePairs the key value pairs of the new config map
+     * @return the new config map
+     */
+    protected ConfigMap<TConfig> copy(ConfigSchema<TConfig> schema, List<KeyValuePair> keyValuePairs) {
+
+        return new ConfigMap<>(schema, keyValuePairs);
+    }
+
+    /**
+     * Creates a copy of this config map with the given schema and key value pairs that keeps
+     * the instance and the config sources of this config map.
+     *
+     * @param schema the schema of the new config map
+     * @param keyValuePairs the key value pairs of the new config map
+     * @return the new config map
+     */
+    protected ConfigMap<TConfig> derive(ConfigSchema<TConfig> schema, List<KeyValuePair> keyValuePairs) {
+
+        ConfigMap<TConfig> configMap = copy(schema, keyValuePairs).instance(instance());
+        configMap.sources = sources;
+        return configMap;
+    }
+
     public ConfigMap<TConfig> instance(TConfig config) {
         instance = config;
         return this;
     }
 
+    public Class<TConfig> configClass() {
+
+        return schema.configClass();
+    }
+
     public Map<String, ConfigFieldInformation> configFields() {
 
-        return Map.copyOf(configFields);
+        return schema.configFields();
+    }
+
+    /**
+     * Use the index to query the config fields by their identifier or a prefix of it,
+     * e.g. for tab completion, without copying the {@link #configFields()}.
+     *
+     * @return the key index of the config schema
+     */
+    public ConfigKeyIndex keyIndex() {
+
+        return schema.keyIndex();
+    }
+
+    /**
+     * Enables the normalization of config keys for this and all derived config maps.
+     * <p>The keys {@code Pool-Size}, {@code poolSize} and {@code pool_size} will then
+     * all be mapped to the same config field.
+     *
+     * @return a new config map with key normalization enabled
+     * @see ConfigKeyTable
+     */
+    public ConfigMap<TConfig> normalizeKeys() {
+
+        return derive(schema().withKeyNormalization(true), keyValuePairs());
+    }
+
+    /**
+     * Deduplicates all string values that are loaded by this and all derived config maps.
+     * <p>Share the same interner between all config maps of a large config set.
+     *
+     * @param interner the interner used to deduplicate the values
+     * @return a new config map that interns its values
+     */
+    public ConfigMap<TConfig> intern(@NonNull ValueInterner interner) {
+
+        return derive(schema().withInterner(interner), keyValuePairs());
+    }
+
+    /**
+     * Caches the conversion of repeated string values that are loaded by this and all derived config maps.
+     * <p>Share the same cache between all config maps to make use of the repeated values of large config sets.
+     *
+     * @param cache the cache used to memoize the converted values
+     * @return a new config map that caches its conversions
+     */
+    public ConfigMap<TConfig> cache(@NonNull ConversionCache cache) {
+
+        return derive(schema().withConversionCache(cache), keyValuePairs());
     }
 
     public List<KeyValuePair> keyValuePairs() {
@@ -145,31 +301,199 @@ public class ConfigMap<TConfig> {
     }
 
     public TConfig applyTo(@NonNull TConfig config) throws ConfigurationException {
-        setConfigFields(config, ConfigUtil.loadConfigValues(configFields(), keyValuePairs()));
+        if (schema().constructorBinding().isPresent()) {
+            throw new ConfigurationException("The config class " + configClass().getCanonicalName()
+                    + " is immutable and cannot be applied to an existing instance. Use create() instead.");
+        }
+        setConfigFields(config, ConfigUtil.loadConfigValues(schema(), keyValuePairs(), sources()));
+        return config;
+    }
+
+    /**
+     * Reads the values of all config fields from the given config object.
+     *
+     * @param config the config object that should be read
+     * @return the key value pairs of all config fields that are not null
+     * @see #toKeyValuePairs(Object, boolean)
+     */
+    public List<KeyValuePair> toKeyValuePairs(@NonNull TConfig config) throws ConfigurationException {
+
+        return toKeyValuePairs(config, false);
+    }
+
+    /**
+     * Reads the values of all config fields from the given config object.
+     * <p>This is the reverse of {@link #applyTo(Object)} and can be used to write a config back to disk.
+     * The returned pairs can be loaded again with {@link #with(Collection)}.
+     *
+     * @param config the config object that should be read
+     * @param skipDefaults true if fields that still hold their default value should be skipped
+     * @return the key value pairs of the config fields sorted by their natural order
+     * @throws ConfigurationException if a value could not be read
+     */
+    public List<KeyValuePair> toKeyValuePairs(@NonNull TConfig config, boolean skipDefaults) throws ConfigurationException {
+
+        return ConfigUtil.getConfigValues(schema(), config, skipDefaults);
+    }
+
+    /**
+     * Reads the values of all config fields from the given config object into a map with the
+     * dotted identifiers of the fields as keys.
+     *
+     * @param config the config object that should be read
+     * @param skipDefaults true if fields that still hold their default value should be skipped
+     * @return a map of the config values sorted by the natural order of the config fields
+     * @throws ConfigurationException if a value could not be read
+     * @see #toKeyValuePairs(Object, boolean)
+     */
+    public Map<String, Object> toMap(@NonNull TConfig config, boolean skipDefaults) throws ConfigurationException {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (KeyValuePair pair : toKeyValuePairs(config, skipDefaults)) {
+            values.put(pair.getKey().orElseThrow(), pair.getValue().orElseThrow());
+        }
+        return values;
+    }
+
+    /**
+     * Restores the default values of all config fields inside the given config object.
+     * <p>The defaults are the values that were captured when the config class was scanned.
+     * Use this together with {@link #reapply(Object, List)} to reuse pooled config objects.
+     *
+     * @param config the config object that should be reset
+     * @return the given config object
+     * @throws ConfigurationException if the config is immutable
+     */
+    public TConfig reset(@NonNull TConfig config) throws ConfigurationException {
+
+        if (schema().constructorBinding().isPresent()) {
+            throw new ConfigurationException("The config class " + configClass().getCanonicalName() + " is immutable and cannot be reset.");
+        }
+        schema().resetToDefaults(config);
+        return config;
+    }
+
+    /**
+     * Resets the given config object to its defaults and then applies the given values to it.
+     * <p>The key value pairs of this config map are not applied. This allows mapping configs on a hot
+     * path without creating a new config map or config object for every set of values.
+     *
+     * @param config the config object that should be reused
+     * @param values the values that should be applied after the reset
+     * @return the given config object
+     * @throws ConfigurationException if the config is immutable or the values could not be loaded
+     */
+    public TConfig reapply(@NonNull TConfig config, @NonNull List<KeyValuePair> values) throws ConfigurationException {
+
+        Map<ConfigFieldInformation, Object> fieldValues = ConfigUtil.loadConfigValues(schema(), values);
+        reset(config);
+        setConfigFields(config, fieldValues);
+        return config;
+    }
+
+    /**
+     * @see #reapply(Object, List)
+     */
+    public TConfig reapply(@NonNull TConfig config, @NonNull KeyValuePair... values) throws ConfigurationException {
+
+        return reapply(config, Arrays.asList(values));
+    }
+
+    /**
+     * Loads the config values without converting them.
+     * <p>The keys of the values are resolved and the required config fields are checked right away,
+     * but every value is only converted when it is read from the returned {@link LazyConfig} for the first time.
+     * Use this for large configs of which only a few values are actually read.
+     *
+     * @return the lazy config holding the raw values
+     * @throws ConfigurationException if the keys cannot be resolved or required values are missing
+     */
+    public LazyConfig<TConfig> lazy() throws ConfigurationException {
+
+        return LazyConfig.of(schema(), ConfigUtil.loadRawValues(schema(), keyValuePairs(), sources()));
+    }
+
+    /**
+     * Binds the given positioned arguments, e.g. the arguments of an art-framework action line,
+     * to the config fields with the matching {@link ConfigOption#position()}.
+     * <p>This is the allocation light fast path for positioned arguments. The arguments are bound index by index
+     * with the position table of the schema and the precompiled converters of the config fields.
+     * The key value pairs and sources of this config map are not used.
+     *
+     * @param config the config object the arguments should be applied to
+     * @param arguments the positioned arguments
+     * @return the config object
+     * @throws ConfigurationException if the config is immutable, an argument has no config field at its position,
+     *                                required values are missing or values are invalid
+     */
+    public TConfig applyArguments(@NonNull TConfig config, @NonNull Object... arguments) throws ConfigurationException {
+
+        if (schema().constructorBinding().isPresent()) {
+            throw new ConfigurationException("The config class " + configClass().getCanonicalName()
+                    + " is immutable and cannot be applied to an existing instance. Use createFromArguments(Object...) instead.");
+        }
+        Object[] values = ConfigUtil.loadArguments(schema(), arguments);
+        for (int i = 0; i < values.length; i++) {
+            setConfigField(config, schema().positionalField(i), values[i]);
+        }
         return config;
     }
 
+    /**
+     * Creates a new config object from the given positioned arguments.
+     *
+     * @param arguments the positioned arguments
+     * @return the new config object
+     * @throws ConfigurationException if an argument has no config field at its position, required values are missing,
+     *                                values are invalid or the config object cannot be created
+     * @see #applyArguments(Object, Object...)
+     */
+    public TConfig createFromArguments(@NonNull Object... arguments) throws ConfigurationException {
+
+        Optional<ConstructorBinding<TConfig>> constructorBinding = schema().constructorBinding();
+        if (constructorBinding.isPresent()) {
+            return constructorBinding.get().newInstance(schema(), ConfigUtil.loadArguments(schema(), arguments));
+        }
+        try {
+            if (instance() != null)
+                return applyArguments(instance(), arguments);
+            return applyArguments(configClass().getConstructor().newInstance(), arguments);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new ConfigurationException("Unable to create instance of config class "
+                    + configClass().getCanonicalName() + ": " + e.getMessage(), e);
+        }
+    }
+
     public TConfig apply() {
         return create();
     }
 
     public TConfig create() {
+        Optional<ConstructorBinding<TConfig>> constructorBinding = schema().constructorBinding();
+        if (constructorBinding.isPresent()) {
+            return constructorBinding.get().newInstance(ConfigUtil.loadConfigValues(schema(), keyValuePairs(), sources()));
+        }
         try {
             if (instance() != null)
                 return applyTo(instance());
             return applyTo(configClass().getConstructor().newInstance());
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
             throw new ConfigurationException("Unable to create instance of config class "
-                    + configClass.getCanonicalName() + ": " + e.getMessage(), e);
+                    + configClass().getCanonicalName() + ": " + e.getMessage(), e);
         }
     }
 
     public ConfigMap<TConfig> with(@NonNull Collection<KeyValuePair> pairs) {
 
-        List<KeyValuePair> values = Stream.concat(keyValuePairs().stream(), pairs.stream())
-                .distinct()
-                .collect(Collectors.toList());
-        return new ConfigMap<>(configClass(), configFields(), values).instance(instance());
+        List<KeyValuePair> values = new ArrayList<>(keyValuePairs().size() + pairs.size());
+        Set<String> keys = new HashSet<>();
+        for (KeyValuePair pair : keyValuePairs()) {
+            addPair(values, keys, pair);
+        }
+        for (KeyValuePair pair : pairs) {
+            addPair(values, keys, pair);
+        }
+        return derive(schema(), values);
     }
 
     public ConfigMap<TConfig> with(@NonNull KeyValuePair... pairs) {
@@ -177,6 +501,37 @@ public class ConfigMap<TConfig> {
         return with(Arrays.asList(pairs));
     }
 
+    /**
+     * Adds the given config sources to the config map.
+     * <p>The sources are resolved lazily when the config is applied or created. They are only asked for
+     * the config fields that did not get a value from the key value pairs of the config map,
+     * which means that values passed to {@link #with(KeyValuePair...)} always override all sources.
+     * <p>Sources with a higher priority override the ones with a lower priority.
+     * If the priority is equal the sources that were added last win.
+     *
+     * @param sources the sources that should be added
+     * @return a new config map with the given sources
+     */
+    public ConfigMap<TConfig> with(@NonNull ConfigSource... sources) {
+
+        List<ConfigSource> orderedSources = new ArrayList<>(this.sources.size() + sources.length);
+        for (int i = sources.length - 1; i >= 0; i--) {
+            orderedSources.add(sources[i]);
+        }
+        orderedSources.addAll(this.sources);
+        orderedSources.sort(Comparator.comparingInt(ConfigSource::priority).reversed());
+
+        ConfigMap<TConfig> configMap = derive(schema(), keyValuePairs);
+        configMap.sources = List.copyOf(orderedSources);
+        return configMap;
+    }
+
+    private static void addPair(List<KeyValuePair> values, Set<String> keys, KeyValuePair pair) {
+
+        String key = pair.getKey().orElse(null);
+        if (key == null || keys.add(key)) values.add(pair);
+    }
+
     private void setConfigFields(Object config, Map<ConfigFieldInformation, Object> fieldValueMap) {
         fieldValueMap.forEach((configFieldInformation, o) -> setConfigField(config, configFieldInformation, o));
     }
@@ -184,7 +539,9 @@ public class ConfigMap<TConfig> {
     private void setConfigField(Object config, ConfigFieldInformation fieldInformation, Object value) {
 
         try {
-            if (fieldInformation.identifier().contains(".")) {
+            if (fieldInformation.accessor() != null) {
+                fieldInformation.accessor().set(config, value);
+            } else if (fieldInformation.identifier().contains(".")) {
                 // handle nested config objects
                 String nestedIdentifier = StringUtils.substringBefore(fieldInformation.identifier(), ".");
                 Field parentField = ReflectionUtil.getDeclaredField(config.getClass(), nestedIdentifier)
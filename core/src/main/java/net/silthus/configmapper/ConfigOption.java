@@ -21,7 +21,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
-@Target({ElementType.FIELD, ElementType.TYPE})
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.TYPE})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ConfigOption {
 
@@ -33,6 +33,14 @@ public @interface ConfigOption {
      */
     String value() default "";
 
+    /**
+     * Alternative names that are accepted for the config option.
+     * <p>The aliases are prefixed with the path of the nested config object, just like the name.
+     *
+     * @return the alternative names of the config option
+     */
+    String[] aliases() default {};
+
     /**
      * @return a description about the config option
      */
@@ -51,4 +59,23 @@ public @interface ConfigOption {
      * @return the position of the config option
      */
     int position() default -1;
+
+    /**
+     * Fills fields of type {@code List<Integer>}, {@code List<Long>} and {@code List<Double>} with the
+     * compact {@link IntList}, {@link LongList} and {@link DoubleList} that store their values in a primitive array.
+     * <p>Use this for large numeric lists to avoid boxing every single element.
+     *
+     * @return true if numeric lists should be stored in primitive arrays
+     */
+    boolean compact() default false;
+
+    /**
+     * Maps fields of type {@code Map<String, NestedConfig>} with at least {@link TypeConverters#PARALLEL_THRESHOLD}
+     * entries in parallel on the common fork join pool.
+     * <p>Maps are mapped on the calling thread by default. Only enable this if the nested config classes
+     * can be created on other threads and the common pool is not needed by anything else while the config is loaded.
+     *
+     * @return true if large maps of config objects should be mapped in parallel
+     */
+    boolean parallel() default false;
 }
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.*;
+import lombok.experimental.Accessors;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The schema holds all config fields of a config class together with the lookup tables derived from them.
+ * <p>A schema is immutable and shared by all {@link ConfigMap}s that are derived from each other,
+ * e.g. with {@link ConfigMap#with(KeyValuePair...)}. This makes sure the derived tables are only built once per schema.
+ *
+ * @param <TConfig> the type of the config
+ */
+@Value
+@Accessors(fluent = true)
+public class ConfigSchema<TConfig> {
+
+    private static final ClassCache<ConfigSchema<?>> SCHEMAS = ClassCache.of(configClass -> ConfigSchema.of(configClass, ConfigUtil.getConfigFields(configClass)));
+
+    /**
+     * Returns the schema of the given config class that is scanned once with the default settings
+     * and then shared by all callers, e.g. to map the entries of {@code Map<String, NestedConfig>} fields.
+     *
+     * @param configClass the class of the config
+     * @param <TConfig> the type of the config
+     * @return the cached schema of the config class
+     * @throws ConfigurationException if the class cannot be scanned
+     */
+    @SuppressWarnings("unchecked")
+    public static <TConfig> ConfigSchema<TConfig> of(@NonNull Class<TConfig> configClass) throws ConfigurationException {
+
+        return (ConfigSchema<TConfig>) SCHEMAS.get(configClass);
+    }
+
+    /**
+     * Creates a new schema from the given config fields.
+     * <p>Use the {@link ConfigUtil} to scan a class for its config fields.
+     *
+     * @param configClass the class of the config
+     * @param configFields the field to config field information map
+     * @param <TConfig> the type of the config
+     * @return the schema of the config class
+     */
+    public static <TConfig> ConfigSchema<TConfig> of(@NonNull Class<TConfig> configClass, @NonNull Map<String, ConfigFieldInformation> configFields) {
+
+        return new ConfigSchema<>(configClass, Map.copyOf(configFields), false, null, null);
+    }
+
+    Class<TConfig> configClass;
+    Map<String, ConfigFieldInformation> configFields;
+    /**
+     * True if the case and the separators of config keys are ignored when values are loaded.
+     */
+    boolean normalizeKeys;
+    /**
+     * The interner used to deduplicate loaded string values or null if values are not interned.
+     */
+    @EqualsAndHashCode.Exclude
+    ValueInterner interner;
+    /**
+     * The cache used to memoize the conversion of string values or null if conversions are not cached.
+     */
+    @EqualsAndHashCode.Exclude
+    ConversionCache conversionCache;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Lazy<ConfigKeyIndex> keyIndex;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Lazy<ConfigKeyTable> keyTable;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Lazy<Optional<ConstructorBinding<TConfig>>> constructorBinding;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Lazy<ConfigDefaults> defaults;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Lazy<Long> fingerprint;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Lazy<Map<ConfigFieldInformation, Integer>> slots;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Lazy<ConfigFieldInformation[]> positions;
+    @Getter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    Lazy<ConfigFieldInformation[]> requiredFields;
+
+    private ConfigSchema(Class<TConfig> configClass, Map<String, ConfigFieldInformation> configFields, boolean normalizeKeys, ValueInterner interner, ConversionCache conversionCache) {
+        this.configClass = configClass;
+        this.configFields = configFields;
+        this.normalizeKeys = normalizeKeys;
+        this.interner = interner;
+        this.conversionCache = conversionCache;
+        this.keyIndex = Lazy.of(() -> ConfigKeyIndex.of(configFields.values()));
+        this.keyTable = Lazy.of(() -> ConfigKeyTable.of(configFields.values(), normalizeKeys));
+        this.constructorBinding = Lazy.of(() -> ConstructorBinding.isConstructorBound(configClass)
+                ? Optional.of(ConstructorBinding.of(configClass, configFields))
+                : Optional.empty());
+        this.defaults = Lazy.of(() -> ConfigDefaults.of(configFields.values()));
+        this.fingerprint = Lazy.of(() -> {
+            Set<Class<?>> visited = new HashSet<>();
+            visited.add(configClass);
+            return computeFingerprint(keyIndex.get(), visited);
+        });
+        this.slots = Lazy.of(() -> {
+            List<ConfigFieldInformation> fields = keyIndex.get().withPrefix("");
+            Map<ConfigFieldInformation, Integer> slots = new IdentityHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                slots.put(fields.get(i), i);
+            }
+            return slots;
+        });
+        this.positions = Lazy.of(() -> buildPositions(configFields.values()));
+        this.requiredFields = Lazy.of(() -> configFields.values().stream()
+                .filter(ConfigFieldInformation::required)
+                .sorted()
+                .toArray(ConfigFieldInformation[]::new));
+    }
+
+    private static ConfigFieldInformation[] buildPositions(Collection<ConfigFieldInformation> fields) {
+
+        if (fields.size() == 1) return fields.toArray(new ConfigFieldInformation[0]);
+
+        int length = 0;
+        for (ConfigFieldInformation field : fields) {
+            length = Math.max(length, field.position() + 1);
+        }
+        ConfigFieldInformation[] positions = new ConfigFieldInformation[length];
+        for (ConfigFieldInformation field : fields) {
+            if (field.position() >= 0) positions[field.position()] = field;
+        }
+        return positions;
+    }
+
+    /**
+     * The fingerprint identifies the layout of the schema, e.g. to detect outdated {@link ConfigSnapshot}s.
+     * <p>It is a 64 bit FNV-1a hash over the identifiers, generic types and positions of all config fields
+     * in their natural order and changes whenever a config field is added, removed, renamed or retyped.
+     * The fingerprints of nested config classes, including the element types of arrays, collections and maps,
+     * are part of the hash, so changes of nested config classes are detected as well. Polymorphic config types
+     * add their discriminator key and the names and fingerprints of all their subtypes.
+     *
+     * @return the fingerprint of the schema
+     */
+    public long fingerprint() {
+
+        return fingerprint.get();
+    }
+
+    private static long computeFingerprint(ConfigKeyIndex fields, Set<Class<?>> visited) {
+
+        long hash = 0xcbf29ce484222325L;
+        for (ConfigFieldInformation field : fields) {
+            hash = fnv(hash, field.identifier());
+            hash = fnv(hash, field.genericType().getTypeName());
+            hash = (hash ^ field.position()) * 0x100000001b3L;
+            hash = nestedFingerprint(hash, field.genericType(), visited);
+        }
+        return hash;
+    }
+
+    private static long nestedFingerprint(long hash, Type type, Set<Class<?>> visited) {
+
+        if (type instanceof Class) {
+            Class<?> nestedClass = (Class<?>) type;
+            if (nestedClass.isArray()) return nestedFingerprint(hash, nestedClass.getComponentType(), visited);
+            Optional<SubtypeTable> subtypes = SubtypeTable.of(nestedClass);
+            if (subtypes.isPresent()) {
+                if (!visited.add(nestedClass)) return hash;
+                hash = fnv(hash, subtypes.get().key());
+                for (Map.Entry<String, Class<?>> subtype : subtypes.get().subtypes().entrySet()) {
+                    hash = fnv(hash, subtype.getKey());
+                    if (visited.add(subtype.getValue())) {
+                        hash = (hash ^ computeFingerprint(ConfigSchema.of(subtype.getValue()).keyIndex(), visited)) * 0x100000001b3L;
+                    }
+                }
+                return hash;
+            }
+            if (!TypeConverters.isConfigClass(nestedClass) || !visited.add(nestedClass)) {
+                return hash;
+            }
+            return (hash ^ computeFingerprint(ConfigSchema.of(nestedClass).keyIndex(), visited)) * 0x100000001b3L;
+        }
+        if (type instanceof ParameterizedType) {
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                hash = nestedFingerprint(hash, argument, visited);
+            }
+            return hash;
+        }
+        if (type instanceof GenericArrayType) {
+            return nestedFingerprint(hash, ((GenericArrayType) type).getGenericComponentType(), visited);
+        }
+        if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                hash = nestedFingerprint(hash, bound, visited);
+            }
+        }
+        return hash;
+    }
+
+    private static long fnv(long hash, String value) {
+
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return (hash ^ 0xff) * 0x100000001b3L;
+    }
+
+    /**
+     * Restores the default values of all config fields inside the given config object.
+     *
+     * @param config the config object that should be reset
+     * @throws ConfigurationException if a config field is not writable
+     */
+    public void resetToDefaults(@NonNull TConfig config) throws ConfigurationException {
+
+        defaults.get().reset(config);
+    }
+
+    /**
+     * Records and classes with a {@link ConfigConstructor} are immutable and must be created
+     * with their constructor binding instead of setting their fields.
+     *
+     * @return the constructor binding of the config class or an empty optional if the config class is mutable
+     */
+    public Optional<ConstructorBinding<TConfig>> constructorBinding() {
+
+        return constructorBinding.get();
+    }
+
+    /**
+     * Creates a new config object from the loaded values of its config fields.
+     * <p>Immutable config classes are created with their constructor binding, all others with their
+     * public no args constructor and the precompiled field accessors.
+     *
+     * @param values the converted values of the config fields
+     * @return the new config object
+     * @throws ConfigurationException if the config object cannot be created
+     */
+    TConfig newInstance(Map<ConfigFieldInformation, Object> values) throws ConfigurationException {
+
+        Optional<ConstructorBinding<TConfig>> binding = constructorBinding();
+        if (binding.isPresent()) return binding.get().newInstance(values);
+
+        TConfig config;
+        try {
+            config = configClass.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ConfigurationException("Unable to create instance of config class "
+                    + configClass.getCanonicalName() + ": " + e.getMessage(), e);
+        }
+        for (Map.Entry<ConfigFieldInformation, Object> entry : values.entrySet()) {
+            FieldAccessor accessor = entry.getKey().accessor();
+            if (accessor == null) {
+                throw new ConfigurationException("Unable to set the config field " + entry.getKey().identifier() + ". It was not created by scanning the config class.");
+            }
+            accessor.set(config, entry.getValue());
+        }
+        return config;
+    }
+
+    /**
+     * Enables or disables the normalization of config keys.
+     * <p>With normalization enabled the keys {@code Pool-Size}, {@code poolSize} and {@code pool_size}
+     * all resolve to the same config field. See {@link ConfigKeyTable} for details.
+     *
+     * @param normalizeKeys true if the case and separators of config keys should be ignored
+     * @return a schema with the same config fields and the given key normalization
+     */
+    public ConfigSchema<TConfig> withKeyNormalization(boolean normalizeKeys) {
+
+        if (this.normalizeKeys == normalizeKeys) return this;
+        return new ConfigSchema<>(configClass, configFields, normalizeKeys, interner, conversionCache);
+    }
+
+    /**
+     * Sets the cache that memoizes the conversion of string values loaded with this schema.
+     *
+     * @param conversionCache the cache or null if conversions should not be cached
+     * @return a schema with the same config fields and the given conversion cache
+     */
+    public ConfigSchema<TConfig> withConversionCache(ConversionCache conversionCache) {
+
+        if (this.conversionCache == conversionCache) return this;
+        return new ConfigSchema<>(configClass, configFields, normalizeKeys, interner, conversionCache);
+    }
+
+    /**
+     * Sets the interner that deduplicates all string values loaded with this schema.
+     *
+     * @param interner the interner or null if values should not be interned
+     * @return a schema with the same config fields and the given interner
+     */
+    public ConfigSchema<TConfig> withInterner(ValueInterner interner) {
+
+        if (this.interner == interner) return this;
+        return new ConfigSchema<>(configClass, configFields, normalizeKeys, interner, conversionCache);
+    }
+
+    /**
+     * Resolves the config field of the given key, taking aliases and key normalization into account.
+     *
+     * @param key the key of the config value
+     * @return the config field or null if the schema does not declare the key
+     */
+    public ConfigFieldInformation findField(CharSequence key) {
+
+        if (key instanceof String) {
+            ConfigFieldInformation field = configFields.get(key);
+            if (field != null) return field;
+        }
+        return keyTable.get().get(key);
+    }
+
+    /**
+     * The key index is built on first access and then shared by all users of the schema.
+     *
+     * @return the trie index over the identifiers of the config fields
+     */
+    public ConfigKeyIndex keyIndex() {
+
+        return keyIndex.get();
+    }
+
+    /**
+     * Gets the slot of the given config field, which is its index in the natural order of the {@link #keyIndex()}.
+     * <p>The slots are used to store the values of a config in a plain array.
+     * They are looked up by identity, so the field must be one of the {@link #configFields()} of this schema.
+     *
+     * @param field the config field
+     * @return the slot of the config field or -1 if it is not part of this schema
+     */
+    int slot(ConfigFieldInformation field) {
+
+        Integer slot = slots.get().get(field);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Builds all tables of the schema that are otherwise created on first use,
+     * e.g. the key index, the key lookup table and the constructor binding.
+     *
+     * @return this schema
+     * @throws ConfigurationException if a table cannot be built
+     */
+    ConfigSchema<TConfig> warm() throws ConfigurationException {
+
+        keyIndex.get();
+        keyTable.get();
+        constructorBinding.get();
+        slots.get();
+        positions.get();
+        requiredFields.get();
+        return this;
+    }
+
+    /**
+     * Gets the config field that takes the positioned argument at the given index.
+     * <p>A config with a single config field takes all positioned arguments with that field.
+     *
+     * @param index the index of the positioned argument
+     * @return the config field at the position or null if the config has no config field at the position
+     */
+    ConfigFieldInformation positionalField(int index) {
+
+        ConfigFieldInformation[] table = positions.get();
+        if (table.length == 1 && configFields.size() == 1) return table[0];
+        return index >= 0 && index < table.length ? table[index] : null;
+    }
+
+    /**
+     * @return the required config fields in their natural order
+     */
+    ConfigFieldInformation[] requiredFields() {
+
+        return requiredFields.get();
+    }
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+import lombok.extern.java.Log;
+
+import java.io.*;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.function.Function;
+import java.util.logging.Level;
+
+/**
+ * Stores the mapped values of many config objects in a compact binary file for fast warm restarts.
+ * <p>A snapshot is keyed by the {@link ConfigSchema#fingerprint() fingerprint} of the schema and by the size and
+ * modification time of the source file it was created from. Use {@link #load(Path, Path, ConfigSchema, Function)}
+ * to restore the config objects from the snapshot, which automatically rebuilds the snapshot from the source file
+ * if the schema or the source file changed.
+ * <p>Restoring a snapshot does not parse any text. Strings, primitives, enums and primitive arrays are set directly,
+ * collections, maps and nested config objects are restored with the converters of the config fields.
+ */
+@Log(topic = "configmapper")
+public final class ConfigSnapshot {
+
+    private static final int MAGIC = 0x434d534e;
+    private static final short VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte BYTE = 3;
+    private static final byte SHORT = 4;
+    private static final byte CHAR = 5;
+    private static final byte INT = 6;
+    private static final byte LONG = 7;
+    private static final byte FLOAT = 8;
+    private static final byte DOUBLE = 9;
+    private static final byte ENUM = 10;
+    private static final byte LIST = 11;
+    private static final byte MAP = 12;
+    private static final byte INT_ARRAY = 13;
+    private static final byte LONG_ARRAY = 14;
+    private static final byte DOUBLE_ARRAY = 15;
+
+    private ConfigSnapshot() {
+    }
+
+    /**
+     * Restores the config objects from the snapshot or, if the snapshot is missing or stale, loads them
+     * from the source file with the given loader and writes a new snapshot.
+     * <p>Failing to write the snapshot is logged and does not fail loading the config objects.
+     *
+     * @param snapshot the snapshot file
+     * @param source the source file the config objects are loaded from, e.g. a yaml file
+     * @param schema the schema of the config objects
+     * @param loader loads the config objects from the source file
+     * @param <TConfig> the type of the config
+     * @return the config objects by their key
+     * @throws ConfigurationException if the snapshot is stale and the loader fails
+     */
+    public static <TConfig> Map<String, TConfig> load(@NonNull Path snapshot, @NonNull Path source, @NonNull ConfigSchema<TConfig> schema,
+                                                      @NonNull Function<Path, Map<String, TConfig>> loader) throws ConfigurationException {
+
+        Optional<Map<String, TConfig>> restored = read(snapshot, source, schema);
+        if (restored.isPresent()) return restored.get();
+
+        Map<String, TConfig> configs = loader.apply(source);
+        try {
+            write(snapshot, source, schema, configs);
+        } catch (ConfigurationException e) {
+            log.log(Level.WARNING, "Unable to write the config snapshot " + snapshot + ": " + e.getMessage(), e);
+        }
+        return configs;
+    }
+
+    /**
+     * Restores the config objects from the snapshot.
+     *
+     * @param snapshot the snapshot file
+     * @param source the source file the snapshot was created from
+     * @param schema the schema of the config objects
+     * @param <TConfig> the type of the config
+     * @return the config objects by their key or an empty optional if the snapshot is missing, corrupt or stale
+     */
+    public static <TConfig> Optional<Map<String, TConfig>> read(@NonNull Path snapshot, @NonNull Path source, @NonNull ConfigSchema<TConfig> schema) {
+
+        if (!Files.isRegularFile(snapshot)) return Optional.empty();
+        ConfigFieldInformation[] fields = fields(schema);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) return Optional.empty();
+            if (in.readLong() != schema.fingerprint()) return Optional.empty();
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            if (in.readLong() != attributes.size() || in.readLong() != attributes.lastModifiedTime().toMillis()) return Optional.empty();
+
+            int count = in.readInt();
+            Map<String, TConfig> configs = new LinkedHashMap<>(Math.max(16, count * 4 / 3 + 1));
+            Map<ConfigFieldInformation, Object> values = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String key = readString(in);
+                values.clear();
+                for (ConfigFieldInformation field : fields) {
+                    Object value = readValue(in, field.type());
+                    if (value != null) values.put(field, restore(field, value));
+                }
+                configs.put(key, schema.newInstance(values));
+            }
+            return Optional.of(configs);
+        } catch (IOException | RuntimeException e) {
+            log.log(Level.FINE, "Discarding the config snapshot " + snapshot + ": " + e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the values of the given config objects into the snapshot file.
+     * <p>The file is replaced atomically if the file system supports it.
+     *
+     * @param snapshot the snapshot file
+     * @param source the source file the config objects were loaded from
+     * @param schema the schema of the config objects
+     * @param configs the config objects by their key
+     * @param <TConfig> the type of the config
+     * @throws ConfigurationException if the snapshot cannot be written or a value cannot be stored
+     */
+    public static <TConfig> void write(@NonNull Path snapshot, @NonNull Path source, @NonNull ConfigSchema<TConfig> schema,
+                                       @NonNull Map<String, TConfig> configs) throws ConfigurationException {
+
+        ConfigFieldInformation[] fields = fields(schema);
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeLong(schema.fingerprint());
+                out.writeLong(attributes.size());
+                out.writeLong(attributes.lastModifiedTime().toMillis());
+                out.writeInt(configs.size());
+                for (Map.Entry<String, TConfig> entry : configs.entrySet()) {
+                    writeString(out, entry.getKey());
+                    for (ConfigFieldInformation field : fields) {
+                        writeValue(out, field.accessor().get(entry.getValue()));
+                    }
+                }
+            }
+            try {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("Unable to write the config snapshot " + snapshot + ": " + e.getMessage(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // the next write replaces the temporary file
+            }
+        }
+    }
+
+    private static ConfigFieldInformation[] fields(ConfigSchema<?> schema) {
+
+        ConfigFieldInformation[] fields = schema.keyIndex().withPrefix("").toArray(new ConfigFieldInformation[0]);
+        for (ConfigFieldInformation field : fields) {
+            if (field.accessor() == null) {
+                throw new ConfigurationException("Unable to snapshot the config field " + field.identifier() + ". It was not created by scanning the config class.");
+            }
+        }
+        return fields;
+    }
+
+    private static Object restore(ConfigFieldInformation field, Object value) {
+
+        if (value instanceof Collection || value instanceof Map) return field.convert(value);
+        Class<?> type = MethodType.methodType(field.type()).wrap().returnType();
+        if (type.isInstance(value)) return value;
+        return field.convert(value);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Enum) {
+            out.writeByte(ENUM);
+            writeString(out, ((Enum<?>) value).name());
+        } else if (value instanceof int[]) {
+            int[] array = (int[]) value;
+            out.writeByte(INT_ARRAY);
+            out.writeInt(array.length);
+            for (int element : array) out.writeInt(element);
+        } else if (value instanceof long[]) {
+            long[] array = (long[]) value;
+            out.writeByte(LONG_ARRAY);
+            out.writeInt(array.length);
+            for (long element : array) out.writeLong(element);
+        } else if (value instanceof double[]) {
+            double[] array = (double[]) value;
+            out.writeByte(DOUBLE_ARRAY);
+            out.writeInt(array.length);
+            for (double element : array) out.writeDouble(element);
+        } else if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            out.writeByte(LIST);
+            out.writeInt(length);
+            for (int i = 0; i < length; i++) writeValue(out, Array.get(value, i));
+        } else if (value instanceof Collection) {
+            out.writeByte(LIST);
+            out.writeInt(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) writeValue(out, element);
+        } else if (value instanceof Map) {
+            out.writeByte(MAP);
+            out.writeInt(((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (TypeConverters.isConfigClass(value.getClass())) {
+            writeValue(out, toMap(value));
+        } else {
+            throw new ConfigurationException("Unable to store a value of type " + value.getClass().getName() + " in a config snapshot.");
+        }
+    }
+
+    private static Map<String, Object> toMap(Object config) {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        SubtypeTable.ofSubtype(config.getClass()).ifPresent(table -> values.put(table.key(), table.nameOf(config.getClass())));
+        for (ConfigFieldInformation field : ConfigSchema.of(config.getClass()).keyIndex()) {
+            Object value = field.accessor().get(config);
+            if (value != null) values.put(field.identifier(), value);
+        }
+        return values;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readValue(DataInputStream in, Class<?> type) throws IOException {
+
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case BOOLEAN:
+                return in.readBoolean();
+            case BYTE:
+                return in.readByte();
+            case SHORT:
+                return in.readShort();
+            case CHAR:
+                return in.readChar();
+            case INT:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case FLOAT:
+                return in.readFloat();
+            case DOUBLE:
+                return in.readDouble();
+            case ENUM:
+                String name = readString(in);
+                return type != null && type.isEnum() ? Enum.valueOf((Class<? extends Enum>) type, name) : name;
+            case INT_ARRAY:
+                int[] ints = new int[in.readInt()];
+                for (int i = 0; i < ints.length; i++) ints[i] = in.readInt();
+                return ints;
+            case LONG_ARRAY:
+                long[] longs = new long[in.readInt()];
+                for (int i = 0; i < longs.length; i++) longs[i] = in.readLong();
+                return longs;
+            case DOUBLE_ARRAY:
+                double[] doubles = new double[in.readInt()];
+                for (int i = 0; i < doubles.length; i++) doubles[i] = in.readDouble();
+                return doubles;
+            case LIST:
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) list.add(readValue(in, null));
+                return list;
+            case MAP:
+                int entries = in.readInt();
+                Map<Object, Object> map = new LinkedHashMap<>(Math.max(16, entries * 4 / 3 + 1));
+                for (int i = 0; i < entries; i++) map.put(readValue(in, null), readValue(in, null));
+                return map;
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
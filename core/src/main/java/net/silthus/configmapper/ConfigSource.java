@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A layer of config values, e.g. the defaults, a config file or the environment.
+ * <p>Add sources to a config map with {@link ConfigMap#with(ConfigSource...)}. When the config is applied every
+ * config field, that did not get a value from the key value pairs of the config map, is resolved exactly once
+ * by asking the sources for its identifier and aliases. The source with the highest {@link #priority()} wins.
+ * If two sources have the same priority the source that was added last wins.
+ * <p>Sources are only asked for the identifiers the config class declares and never need to list their keys.
+ * Keys that only match with {@link ConfigSchema#withKeyNormalization(boolean) normalized keys} are found by sources
+ * that override {@link #get(ConfigSchema, ConfigFieldInformation)}, like the sources created by {@link #of(Map)}.
+ */
+@FunctionalInterface
+public interface ConfigSource {
+
+    /**
+     * The priority of the built in sources created by {@link #of(Map)} and {@link #of(Collection)}.
+     */
+    int DEFAULT_PRIORITY = 0;
+
+    /**
+     * Creates a source from a map of config values.
+     * <p>The map may either contain the dotted identifiers of the config fields as keys
+     * or nested maps, e.g. as they are loaded from a yaml file.
+     *
+     * @param values the config values
+     * @return a source with the {@link #DEFAULT_PRIORITY} that reads from the given map
+     */
+    static ConfigSource of(@NonNull Map<String, ?> values) {
+
+        return of(values, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * @param values the config values
+     * @param priority the priority of the source
+     * @return a source with the given priority that reads from the given map
+     * @see #of(Map)
+     */
+    static ConfigSource of(@NonNull Map<String, ?> values, int priority) {
+
+        return new MapConfigSource(values, priority);
+    }
+
+    /**
+     * Creates a source from the given key value pairs.
+     * <p>Pairs without a key are ignored. If a key is used more than once the first pair wins.
+     *
+     * @param pairs the key value pairs of the source
+     * @return a source with the {@link #DEFAULT_PRIORITY} that reads from the given pairs
+     */
+    static ConfigSource of(@NonNull Collection<KeyValuePair> pairs) {
+
+        return of(pairs, DEFAULT_PRIORITY);
+    }
+
+    /**
+     * @param pairs the key value pairs of the source
+     * @param priority the priority of the source
+     * @return a source with the given priority that reads from the given pairs
+     * @see #of(Collection)
+     */
+    static ConfigSource of(@NonNull Collection<KeyValuePair> pairs, int priority) {
+
+        Map<String, Object> values = new HashMap<>();
+        for (KeyValuePair pair : pairs) {
+            if (pair.getKey().isPresent() && pair.getValue().isPresent()) {
+                values.putIfAbsent(pair.getKey().get(), pair.getValue().get());
+            }
+        }
+        return of(values, priority);
+    }
+
+    /**
+     * Looks up the raw value of a single config field.
+     *
+     * @param key the dotted identifier or alias of the config field
+     * @return the raw value or an empty optional if the source has no value for the key
+     */
+    Optional<Object> get(@NonNull String key);
+
+    /**
+     * Looks up the raw value of a config field of the given schema.
+     * <p>The default implementation asks {@link #get(String)} for the identifier and then for the aliases of the field.
+     * Sources that know their keys also match every key that the schema resolves to the field with
+     * {@link ConfigSchema#findField(CharSequence)}, e.g. {@code Pool-Size} for {@code pool_size}
+     * if the schema normalizes keys.
+     *
+     * @param schema the schema that declares the config field
+     * @param field the config field
+     * @return the raw value or an empty optional if the source has no value for the config field
+     */
+    default Optional<Object> get(@NonNull ConfigSchema<?> schema, @NonNull ConfigFieldInformation field) {
+
+        Optional<Object> value = get(field.identifier());
+        for (int i = 0; value.isEmpty() && i < field.aliases().length; i++) {
+            value = get(field.aliases()[i]);
+        }
+        return value;
+    }
+
+    /**
+     * @return the priority of the source, higher priorities override lower ones
+     */
+    default int priority() {
+
+        return DEFAULT_PRIORITY;
+    }
+
+    /**
+     * @param priority the new priority
+     * @return a source that reads from this source with the given priority
+     */
+    default ConfigSource withPriority(int priority) {
+
+        ConfigSource source = this;
+        return new ConfigSource() {
+            @Override
+            public Optional<Object> get(@NonNull String key) {
+                return source.get(key);
+            }
+
+            @Override
+            public Optional<Object> get(@NonNull ConfigSchema<?> schema, @NonNull ConfigFieldInformation field) {
+                return source.get(schema, field);
+            }
+
+            @Override
+            public int priority() {
+                return priority;
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an interface or base class as polymorphic config type whose implementation is selected by a
+ * discriminator key inside the config values, e.g. {@code type: message}.
+ * <p>The subtypes are either listed in {@link #value()} or, if the base type is sealed, discovered from its
+ * permitted subclasses. The name of a subtype is taken from its {@link ConfigType} annotation or defaults to
+ * its simple class name in lower_underscore, e.g. {@code MessageAction} becomes {@code message_action}.
+ * <p>Fields, map values and list elements of the base type are then mapped with the schema of the selected subtype.
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConfigSubtypes {
+
+    /**
+     * @return the subtypes of the config type or an empty array to use the permitted subclasses of a sealed type
+     */
+    Class<?>[] value() default {};
+
+    /**
+     * @return the key that holds the name of the subtype
+     */
+    String key() default "type";
+}
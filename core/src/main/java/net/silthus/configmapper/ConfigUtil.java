@@ -27,14 +27,30 @@ import java.util.stream.Collectors;
 public final class ConfigUtil {
 
     public static Map<String, ConfigFieldInformation> getConfigFields(Class<?> configClass, FieldNameFormatter formatter) throws ConfigurationException {
-        try {
-            Constructor<?> constructor = configClass.getConstructor();
-            constructor.setAccessible(true);
-            return getConfigFields("", configClass, constructor.newInstance(), formatter);
-        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new ConfigurationException("Unable to create instance of config class \"" + configClass.getSimpleName() + "\": " + e.getMessage()
-                    + ". Is it public and has a public no args constructor?", e);
+        return getConfigFields(configClass, formatter, ScanMode.EAGER);
+    }
+
+    /**
+     * Scans the given config class for config fields using the provided {@link ScanMode}.
+     * <p>Use {@link ScanMode#LAZY} to avoid instantiating the config class and its nested config objects
+     * during the scan. The default values are then captured on first access from a single shared prototype.
+     * <p>Config interfaces are scanned for their getters instead, see {@link ConfigMap#ofInterface(Class)}.
+     *
+     * @param configClass the config class that should be scanned
+     * @param formatter the formatter used to create the identifier of the fields
+     * @param mode the mode used to capture the default values of the fields
+     * @return a map of all config fields mapped to their identifier
+     * @throws ConfigurationException if the class cannot be instantiated in {@link ScanMode#EAGER}
+     *                                or if a mapping failed
+     */
+    public static Map<String, ConfigFieldInformation> getConfigFields(Class<?> configClass, FieldNameFormatter formatter, @NonNull ScanMode mode) throws ConfigurationException {
+        if (configClass.isInterface()) {
+            return getInterfaceFields(configClass, formatter);
         }
+        if (mode == ScanMode.LAZY || ConstructorBinding.isConstructorBound(configClass)) {
+            return getConfigFields("", List.of(), configClass, Lazy.of(() -> newInstance(configClass)), mode, formatter);
+        }
+        return getConfigFields("", List.of(), configClass, Lazy.value(newInstance(configClass)), mode, formatter);
     }
 
     public static Map<String, ConfigFieldInformation> getConfigFields(Class<?> configClass) throws ConfigurationException {
@@ -47,97 +63,209 @@ public final class ConfigUtil {
 
     public static <TConfig> Map<String, ConfigFieldInformation> getConfigFields(TConfig config) throws ConfigurationException {
 
-        return getConfigFields("", config.getClass(), config, FieldNameFormatters.LOWER_UNDERSCORE);
+        return getConfigFields("", List.of(), config.getClass(), Lazy.value(config), ScanMode.EAGER, FieldNameFormatters.LOWER_UNDERSCORE);
     }
 
     public static <TConfig> Map<String, ConfigFieldInformation> getConfigFields(Class<TConfig> configClass, TConfig config, FieldNameFormatter formatter) throws ConfigurationException {
-        return getConfigFields("", configClass, config, formatter);
+        return getConfigFields("", List.of(), configClass, Lazy.value(config), ScanMode.EAGER, formatter);
     }
 
-    private static Map<String, ConfigFieldInformation> getConfigFields(String basePath, Class<?> configClass, Object configInstance, FieldNameFormatter formatter) throws ConfigurationException {
+    private static Map<String, ConfigFieldInformation> getConfigFields(String basePath, List<Field> parents, Class<?> configClass, Lazy<?> configInstance, ScanMode mode, FieldNameFormatter formatter) throws ConfigurationException {
         Map<String, ConfigFieldInformation> fields = new HashMap<>();
 
-        try {
-            Field[] configFields;
-            if (configClass.isAnnotationPresent(ConfigOption.class)) {
-                configFields = FieldUtils.getAllFields(configClass);
-            } else {
-                configFields = FieldUtils.getFieldsWithAnnotation(configClass, ConfigOption.class);
-            }
+        boolean constructorBound = ConstructorBinding.isConstructorBound(configClass);
+        if (constructorBound && !basePath.isEmpty()) {
+            throw new ConfigurationException("The constructor bound config class \"" + configClass.getSimpleName()
+                    + "\" cannot be used as nested config object in \"" + basePath + "\".");
+        }
+
+        Field[] configFields;
+        if (configClass.isRecord()) {
+            configFields = ConstructorBinding.getArgumentFields(configClass).toArray(new Field[0]);
+        } else if (configClass.isAnnotationPresent(ConfigOption.class)) {
+            configFields = FieldUtils.getAllFields(configClass);
+        } else {
+            configFields = FieldUtils.getFieldsWithAnnotation(configClass, ConfigOption.class);
+        }
 
-            for (Field field : configFields) {
-                if (Modifier.isStatic(field.getModifiers())) continue;
-                if (field.isAnnotationPresent(Ignore.class)) continue;
-                if (Modifier.isFinal(field.getModifiers())) {
-                    if (field.isAnnotationPresent(ConfigOption.class)) {
-                        throw new ConfigurationException("Cannot use a final field as a config option. Remove the @ConfigOption or the final modifier from \"" + field.getName() + "\"");
-                    }
-                    continue;
+        for (Field field : configFields) {
+            if (Modifier.isStatic(field.getModifiers())) continue;
+            if (field.isAnnotationPresent(Ignore.class)) continue;
+            if (Modifier.isFinal(field.getModifiers()) && !constructorBound) {
+                if (field.isAnnotationPresent(ConfigOption.class)) {
+                    throw new ConfigurationException("Cannot use a final field as a config option. Remove the @ConfigOption or the final modifier from \"" + field.getName() + "\"");
                 }
+                continue;
+            }
 
-                Optional<ConfigOption> configOption = getConfigOption(field);
-
-                String identifier = basePath + configOption.map(ConfigOption::value)
-                        .filter(s -> !s.trim().isEmpty())
-                        .orElse(formatter.apply(field.getName()));
-
-                if (field.getType().isPrimitive()
-                        ||field.getType().isEnum()
-                        || field.getType().equals(String.class)
-                        || field.getType().isArray()
-                        || Collection.class.isAssignableFrom(field.getType())
-                        || Map.class.isAssignableFrom(field.getType())
-                ) {
-
-                    String[] description = configOption.map(ConfigOption::description).orElse(new String[0]);
-                    Boolean required = configOption.map(ConfigOption::required).orElse(false);
-                    Integer position = configOption.map(ConfigOption::position).orElse(-1);
-
-                    field.setAccessible(true);
-
-                    Object defaultValue = field.get(configInstance);
-
-                    if (field.getType().isArray() && defaultValue == null) {
-                        defaultValue = Array.newInstance(field.getType().getComponentType(), 0);
-                    }
-
-                    fields.put(identifier, new ConfigFieldInformation(
-                            identifier,
-                            field.getName(),
-                            field.getType(),
-                            position,
-                            description,
-                            required,
-                            defaultValue
-                    ));
+            Optional<ConfigOption> configOption = getConfigOption(field);
+
+            String identifier = basePath + configOption.map(ConfigOption::value)
+                    .filter(s -> !s.trim().isEmpty())
+                    .orElse(formatter.apply(field.getName()));
+
+            if (field.getType().isPrimitive()
+                    ||field.getType().isEnum()
+                    || field.getType().equals(String.class)
+                    || field.getType().isArray()
+                    || Collection.class.isAssignableFrom(field.getType())
+                    || Map.class.isAssignableFrom(field.getType())
+                    || SubtypeTable.isPolymorphic(field.getType())
+                    || field.getType().isInterface()
+            ) {
+
+                String[] description = configOption.map(ConfigOption::description).orElse(new String[0]);
+                Boolean required = configOption.map(ConfigOption::required).orElse(false);
+                Integer position = configOption.map(ConfigOption::position).orElse(-1);
+                String[] aliases = configOption.map(ConfigOption::aliases).stream()
+                        .flatMap(Arrays::stream)
+                        .filter(alias -> !alias.trim().isEmpty())
+                        .map(alias -> basePath + alias)
+                        .toArray(String[]::new);
+
+                field.setAccessible(true);
+
+                Lazy<Object> defaultValue;
+                if (constructorBound) {
+                    defaultValue = Lazy.value(getEmptyValue(field.getType()));
+                } else if (mode == ScanMode.LAZY) {
+                    defaultValue = Lazy.of(() -> getDefaultValue(field, configInstance.get()));
                 } else {
-                    field.setAccessible(true);
-                    Object defaultValue = field.get(configInstance);
-                    if (defaultValue == null)
-                        defaultValue = field.getType().getConstructor().newInstance();
-                    fields.putAll(getConfigFields(identifier + ".", field.getType(), defaultValue, formatter));
+                    defaultValue = Lazy.value(getDefaultValue(field, configInstance.get()));
                 }
+
+                fields.put(identifier, new ConfigFieldInformation(
+                        identifier,
+                        field.getName(),
+                        field.getType(),
+                        position,
+                        description,
+                        required,
+                        defaultValue,
+                        FieldAccessor.of(parents, field),
+                        aliases,
+                        field.getGenericType(),
+                        TypeConverters.of(field.getGenericType(), configOption.map(ConfigOption::compact).orElse(false),
+                                configOption.map(ConfigOption::parallel).orElse(false)),
+                        ConfigConstraints.of(field)
+                ));
+            } else {
+                field.setAccessible(true);
+                Lazy<Object> nestedInstance = mode == ScanMode.LAZY
+                        ? Lazy.of(() -> getNestedInstance(field, configInstance.get()))
+                        : Lazy.value(getNestedInstance(field, configInstance.get()));
+                List<Field> nestedParents = new ArrayList<>(parents);
+                nestedParents.add(field);
+                fields.putAll(getConfigFields(identifier + ".", nestedParents, field.getType(), nestedInstance, mode, formatter));
             }
+        }
 
-            List<ConfigFieldInformation> sameFieldPosition = fields.values().stream().filter(field1 -> fields.values().stream().anyMatch(
-                    field2 -> field1 != field2
-                            && field1.position() > -1
-                            && field2.position() > -1
-                            && field1.position() == field2.position()
-            )).collect(Collectors.toList());
+        checkPositions(fields);
 
-            if (!sameFieldPosition.isEmpty()) {
-                throw new ConfigurationException("found same position " + sameFieldPosition.get(0).position() + " on the following fields: "
-                        + sameFieldPosition.stream().map(ConfigFieldInformation::identifier).collect(Collectors.joining(",")));
-            }
+        return fields;
+    }
 
-        } catch (IllegalAccessException | NoSuchMethodException | InvocationTargetException | InstantiationException e) {
-            throw new ConfigurationException(e);
+    private static Map<String, ConfigFieldInformation> getInterfaceFields(Class<?> configInterface, FieldNameFormatter formatter) throws ConfigurationException {
+        Map<String, ConfigFieldInformation> fields = new HashMap<>();
+
+        InterfaceImplementation implementation = InterfaceImplementation.of(configInterface);
+        for (Method method : implementation.methods()) {
+            Optional<ConfigOption> configOption = Optional.ofNullable(method.getAnnotation(ConfigOption.class));
+            String name = InterfaceImplementation.propertyName(method);
+
+            String identifier = configOption.map(ConfigOption::value)
+                    .filter(s -> !s.trim().isEmpty())
+                    .orElse(formatter.apply(name));
+            String[] aliases = configOption.map(ConfigOption::aliases).stream()
+                    .flatMap(Arrays::stream)
+                    .filter(alias -> !alias.trim().isEmpty())
+                    .toArray(String[]::new);
+
+            fields.put(identifier, new ConfigFieldInformation(
+                    identifier,
+                    name,
+                    method.getReturnType(),
+                    configOption.map(ConfigOption::position).orElse(-1),
+                    configOption.map(ConfigOption::description).orElse(new String[0]),
+                    configOption.map(ConfigOption::required).orElse(false),
+                    Lazy.of(() -> implementation.defaultValue(method)),
+                    FieldAccessor.of(implementation.getter(method)),
+                    aliases,
+                    method.getGenericReturnType(),
+                    TypeConverters.of(method.getGenericReturnType(), configOption.map(ConfigOption::compact).orElse(false),
+                            configOption.map(ConfigOption::parallel).orElse(false)),
+                    ConfigConstraints.of(method, method.getReturnType(), name)
+            ));
         }
 
+        checkPositions(fields);
+
         return fields;
     }
 
+    private static void checkPositions(Map<String, ConfigFieldInformation> fields) throws ConfigurationException {
+
+        List<ConfigFieldInformation> sameFieldPosition = fields.values().stream().filter(field1 -> fields.values().stream().anyMatch(
+                field2 -> field1 != field2
+                        && field1.position() > -1
+                        && field2.position() > -1
+                        && field1.position() == field2.position()
+        )).collect(Collectors.toList());
+
+        if (!sameFieldPosition.isEmpty()) {
+            throw new ConfigurationException("found same position " + sameFieldPosition.get(0).position() + " on the following fields: "
+                    + sameFieldPosition.stream().map(ConfigFieldInformation::identifier).collect(Collectors.joining(",")));
+        }
+    }
+
+    private static Object newInstance(Class<?> configClass) throws ConfigurationException {
+        try {
+            Constructor<?> constructor = configClass.getConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new ConfigurationException("Unable to create instance of config class \"" + configClass.getSimpleName() + "\": " + e.getMessage()
+                    + ". Is it public and has a public no args constructor?", e);
+        }
+    }
+
+    private static Object getDefaultValue(Field field, Object configInstance) throws ConfigurationException {
+        try {
+            Object defaultValue = field.get(configInstance);
+            if (field.getType().isArray() && defaultValue == null) {
+                defaultValue = Array.newInstance(field.getType().getComponentType(), 0);
+            }
+            return defaultValue;
+        } catch (IllegalAccessException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Gets the value a field of the given type has if it was never assigned.
+     * <p>Arrays are represented by an empty array instead of null.
+     *
+     * @param type the type of the field
+     * @return the zero value of primitives, an empty array for arrays or null
+     */
+    static Object getEmptyValue(Class<?> type) {
+
+        if (type.isPrimitive()) return Array.get(Array.newInstance(type, 1), 0);
+        if (type.isArray()) return Array.newInstance(type.getComponentType(), 0);
+        return null;
+    }
+
+    private static Object getNestedInstance(Field field, Object configInstance) throws ConfigurationException {
+        try {
+            Object nestedInstance = field.get(configInstance);
+            if (nestedInstance == null)
+                nestedInstance = newInstance(field.getType());
+            return nestedInstance;
+        } catch (IllegalAccessException e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
     public static Optional<ConfigOption> getConfigOption(Field field) {
 
         if (field.isAnnotationPresent(ConfigOption.class)) {
@@ -148,61 +276,294 @@ public final class ConfigUtil {
 
     public static Map<ConfigFieldInformation, Object> loadConfigValues(@NonNull Map<String, ConfigFieldInformation> configFields, @NonNull List<KeyValuePair> keyValuePairs) throws ConfigurationException {
 
-        if (configFields.isEmpty()) return new HashMap<>();
+        return loadConfigValues(ConfigSchema.of(Object.class, configFields), keyValuePairs);
+    }
+
+    /**
+     * Loads the given key value pairs into the config fields of the schema.
+     * <p>The keys are resolved with the lookup table of the schema, which takes care of aliases and
+     * of key normalization if it is enabled in the schema.
+     *
+     * @param schema the schema of the config
+     * @param keyValuePairs the key value pairs that should be loaded
+     * @return a map of the config fields and their converted values
+     * @throws ConfigurationException if the values could not be loaded, required values are missing or values violate their constraints
+     */
+    public static Map<ConfigFieldInformation, Object> loadConfigValues(@NonNull ConfigSchema<?> schema, @NonNull List<KeyValuePair> keyValuePairs) throws ConfigurationException {
+
+        return loadConfigValues(schema, keyValuePairs, List.of());
+    }
+
+    /**
+     * Loads the given key value pairs into the config fields of the schema and resolves all remaining
+     * config fields from the given sources.
+     * <p>Every config field that did not get a value from the key value pairs is looked up once by its
+     * identifier and aliases in the sources. The first source that has a value wins.
+     *
+     * @param schema the schema of the config
+     * @param keyValuePairs the key value pairs that should be loaded
+     * @param sources the sources ordered by their precedence, the first source has the highest precedence
+     * @return a map of the config fields and their converted values
+     * @throws ConfigurationException if the values could not be loaded, required values are missing, values cannot be converted
+     *                                or values violate their constraints. All conversion errors, missing and invalid values
+     *                                are reported at once.
+     * @see ConfigSource
+     */
+    public static Map<ConfigFieldInformation, Object> loadConfigValues(@NonNull ConfigSchema<?> schema, @NonNull List<KeyValuePair> keyValuePairs, @NonNull List<ConfigSource> sources) throws ConfigurationException {
+
+        Map<ConfigFieldInformation, Object> fieldValueMap = resolveRawValues(schema, keyValuePairs, sources);
+
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<ConfigFieldInformation, Object> entry : fieldValueMap.entrySet()) {
+            try {
+                entry.setValue(convertValue(schema, entry.getKey(), entry.getValue(), violations));
+            } catch (ConfigurationException e) {
+                violations.add(e.getMessage());
+            }
+        }
+        checkValues(schema, fieldValueMap, violations);
+
+        return fieldValueMap;
+    }
+
+    /**
+     * Resolves the raw values of the config fields from the given key value pairs and sources without converting them.
+     * <p>Only the presence of the required config fields is checked, conversion and validation are up to the caller.
+     *
+     * @param schema the schema of the config
+     * @param keyValuePairs the key value pairs that should be loaded
+     * @param sources the sources ordered by their precedence
+     * @return a map of the config fields and their raw values
+     * @throws ConfigurationException if the keys could not be resolved or required values are missing
+     * @see LazyConfig
+     */
+    static Map<ConfigFieldInformation, Object> loadRawValues(ConfigSchema<?> schema, List<KeyValuePair> keyValuePairs, List<ConfigSource> sources) throws ConfigurationException {
+
+        Map<ConfigFieldInformation, Object> rawValues = resolveRawValues(schema, keyValuePairs, sources);
+        checkValues(schema, rawValues, List.of());
+        return rawValues;
+    }
+
+    /**
+     * Converts positioned arguments, e.g. the arguments of an art-framework action line, with the position table of the schema.
+     * <p>This is the fast path for configs that are only loaded from positioned arguments. The arguments are bound
+     * index by index with the precompiled converters of the config fields, without resolving keys, sources or
+     * creating any intermediate maps.
+     *
+     * @param schema the schema of the config
+     * @param arguments the positioned arguments
+     * @return the converted values, the value at index {@code i} belongs to {@link ConfigSchema#positionalField(int)}
+     * @throws ConfigurationException if the config has no config field at the position of an argument, an argument is null,
+     *                                required values are missing, arguments cannot be converted or values violate their constraints
+     */
+    static Object[] loadArguments(ConfigSchema<?> schema, Object[] arguments) throws ConfigurationException {
+
+        Object[] values = new Object[arguments.length];
+        List<String> violations = new ArrayList<>(0);
+        for (int i = 0; i < arguments.length; i++) {
+            ConfigFieldInformation configFieldInformation = schema.positionalField(i);
+            if (configFieldInformation == null) {
+                throw new ConfigurationException("Config does not define a positioned parameter at position " + i + ". Use key value pairs instead.");
+            }
+            if (arguments[i] == null) {
+                throw new ConfigurationException("Config " + configFieldInformation.identifier() + " has an empty value.");
+            }
+            try {
+                values[i] = convertValue(schema, configFieldInformation, arguments[i], violations);
+            } catch (ConfigurationException e) {
+                violations.add(e.getMessage());
+            }
+        }
+
+        List<ConfigFieldInformation> missingRequiredFields = null;
+        for (ConfigFieldInformation configFieldInformation : schema.requiredFields()) {
+            int position = schema.configFields().size() == 1 ? 0 : configFieldInformation.position();
+            if (position >= 0 && position < arguments.length) continue;
+            if (configFieldInformation.defaultValue() != null) continue;
+            if (missingRequiredFields == null) missingRequiredFields = new ArrayList<>();
+            missingRequiredFields.add(configFieldInformation);
+        }
 
+        if (missingRequiredFields != null || !violations.isEmpty()) {
+            throwViolations(missingRequiredFields == null ? List.of() : missingRequiredFields, violations);
+        }
+        return values;
+    }
+
+    private static Map<ConfigFieldInformation, Object> resolveRawValues(ConfigSchema<?> schema, List<KeyValuePair> keyValuePairs, List<ConfigSource> sources) throws ConfigurationException {
+
+        Map<String, ConfigFieldInformation> configFields = schema.configFields();
         Map<ConfigFieldInformation, Object> fieldValueMap = new HashMap<>();
-        Set<ConfigFieldInformation> mappedFields = configFields.values().stream()
-                .filter(ConfigFieldInformation::required)
-                .filter(configFieldInformation -> configFieldInformation.defaultValue() != null)
-                .collect(Collectors.toSet());
+        if (configFields.isEmpty()) return fieldValueMap;
 
         boolean usedKeyValue = false;
 
         for (int i = 0; i < keyValuePairs.size(); i++) {
             KeyValuePair keyValue = keyValuePairs.get(i);
 
-            if (keyValue.getKey().isPresent() && !configFields.containsKey(keyValue.getKey().get())) {
+            String key = keyValue.getKey().orElse(null);
+            ConfigFieldInformation configFieldInformation = key == null ? null : schema.findField(key);
+            if (key != null && configFieldInformation == null) {
                 continue;
             }
 
-            ConfigFieldInformation configFieldInformation;
-            if (keyValue.getKey().isPresent() && configFields.containsKey(keyValue.getKey().get())) {
-                configFieldInformation = configFields.get(keyValue.getKey().get());
+            if (configFieldInformation != null) {
                 usedKeyValue = true;
-            } else if (configFields.size() == 1) {
-                configFieldInformation = configFields.values().stream().findFirst().get();
             } else {
-                if (usedKeyValue) {
+                if (usedKeyValue && configFields.size() > 1) {
                     throw new ConfigurationException("Positioned parameter found after key=value pair usage. Positioned parameters must come first.");
                 }
-                int finalI = i;
-                Optional<ConfigFieldInformation> optionalFieldInformation = configFields.values().stream().filter(info -> info.position() == finalI).findFirst();
-                if (optionalFieldInformation.isEmpty()) {
+                configFieldInformation = schema.positionalField(i);
+                if (configFieldInformation == null) {
                     throw new ConfigurationException("Config does not define positioned parameters. Use key value pairs instead.");
                 }
-                configFieldInformation = optionalFieldInformation.get();
             }
 
             if (keyValue.getValue().isEmpty()) {
                 throw new ConfigurationException("Config " + configFieldInformation.identifier() + " has an empty value.");
             }
 
-            Object value = ReflectionUtil.toObject(configFieldInformation.type(), keyValue.getValue().get());
+            fieldValueMap.put(configFieldInformation, keyValue.getValue().get());
+        }
+
+        if (!sources.isEmpty()) {
+            for (ConfigFieldInformation configFieldInformation : configFields.values()) {
+                if (fieldValueMap.containsKey(configFieldInformation)) continue;
+                Object rawValue = resolveValue(schema, sources, configFieldInformation);
+                if (rawValue == null) continue;
+                fieldValueMap.put(configFieldInformation, rawValue);
+            }
+        }
+
+        return fieldValueMap;
+    }
+
+    private static void checkValues(ConfigSchema<?> schema, Map<ConfigFieldInformation, Object> fieldValueMap, List<String> violations) throws ConfigurationException {
+
+        List<ConfigFieldInformation> missingRequiredFields = new ArrayList<>(0);
+        for (ConfigFieldInformation configFieldInformation : schema.requiredFields()) {
+            if (!fieldValueMap.containsKey(configFieldInformation) && configFieldInformation.defaultValue() == null) {
+                missingRequiredFields.add(configFieldInformation);
+            }
+        }
 
-            fieldValueMap.put(configFieldInformation, value);
-            mappedFields.add(configFieldInformation);
+        if (!missingRequiredFields.isEmpty() || !violations.isEmpty()) {
+            throwViolations(missingRequiredFields, violations);
         }
+    }
 
-        List<ConfigFieldInformation> missingRequiredFields = configFields.values().stream()
-                .filter(ConfigFieldInformation::required)
-                .filter(configFieldInformation -> !mappedFields.contains(configFieldInformation))
-                .collect(Collectors.toList());
+    private static void throwViolations(List<ConfigFieldInformation> missingRequiredFields, List<String> violations) throws ConfigurationException {
 
+        List<String> errors = new ArrayList<>();
         if (!missingRequiredFields.isEmpty()) {
-            throw new ConfigurationException("Config is missing " + missingRequiredFields.size() + " required parameters: "
+            errors.add("Config is missing " + missingRequiredFields.size() + " required parameters: "
                     + missingRequiredFields.stream().map(ConfigFieldInformation::identifier).collect(Collectors.joining(",")));
         }
+        if (!violations.isEmpty()) {
+            errors.add("Config has " + violations.size() + " invalid values: " + String.join(", ", violations));
+        }
+        throw new ConfigurationException(String.join(". ", errors));
+    }
 
-        return fieldValueMap;
+    /**
+     * Converts, validates and interns a single raw config value with the settings of the schema.
+     *
+     * @param schema the schema of the config
+     * @param field the config field of the value
+     * @param rawValue the raw config value
+     * @param violations collects the constraint violations of the value
+     * @return the converted value
+     * @throws ConfigurationException if the value cannot be converted, the message contains the identifier of the field
+     */
+    static Object convertValue(ConfigSchema<?> schema, ConfigFieldInformation field, Object rawValue, List<String> violations) throws ConfigurationException {
+
+        Object value;
+        try {
+            value = schema.conversionCache() != null
+                    ? schema.conversionCache().convert(field, rawValue)
+                    : field.convert(rawValue);
+        } catch (RuntimeException e) {
+            throw new ConfigurationException("Unable to convert the config value " + field.identifier() + ": " + e.getMessage(), e);
+        }
+        if (value != null) {
+            Optional<String> violation = field.validate(value);
+            violation.ifPresent(message -> violations.add(field.identifier() + " " + message));
+        }
+        if (schema.interner() != null) {
+            value = schema.interner().internValue(value);
+        }
+        return value;
+    }
+
+    private static Object resolveValue(ConfigSchema<?> schema, List<ConfigSource> sources, ConfigFieldInformation field) {
+
+        for (int i = 0; i < sources.size(); i++) {
+            Optional<Object> value = sources.get(i).get(schema, field);
+            if (value.isPresent()) return value.get();
+        }
+        return null;
+    }
+
+    /**
+     * Reads the values of all config fields from the given config object.
+     * <p>The values are read with the precompiled accessors of the config fields and returned in a format
+     * that can be loaded again with {@link #loadConfigValues(ConfigSchema, List)}:
+     * arrays are serialized with {@link ReflectionUtil#fromArray(Object)} and enums with their name.
+     * Fields with a null value are skipped.
+     *
+     * @param schema the schema of the config object
+     * @param config the config object that should be read
+     * @param skipDefaults true if fields that still hold their default value should be skipped
+     * @return the key value pairs of the config fields sorted by their natural order
+     * @throws ConfigurationException if a value could not be read
+     */
+    public static List<KeyValuePair> getConfigValues(@NonNull ConfigSchema<?> schema, @NonNull Object config, boolean skipDefaults) throws ConfigurationException {
+
+        List<KeyValuePair> values = new ArrayList<>(schema.configFields().size());
+        for (ConfigFieldInformation field : schema.keyIndex()) {
+            if (field.accessor() == null) {
+                throw new ConfigurationException("Unable to read the config field " + field.identifier() + ". It was not created by scanning the config class.");
+            }
+            Object value = field.accessor().get(config);
+            if (value == null) continue;
+            if (skipDefaults && Objects.deepEquals(value, field.defaultValue())) continue;
+            values.add(KeyValuePair.of(field.identifier(), toConfigValue(value)));
+        }
+        return values;
+    }
+
+    private static Object toConfigValue(Object value) {
+
+        if (value.getClass().isArray()) return ReflectionUtil.fromArray(value);
+        if (value instanceof Enum) return ((Enum<?>) value).name();
+        if (value instanceof Map && containsConfigObjects(((Map<?, ?>) value).values())) {
+            Map<Object, Object> values = new LinkedHashMap<>();
+            ((Map<?, ?>) value).forEach((key, element) -> values.put(key, element == null ? null : toConfigValue(element)));
+            return values;
+        }
+        if (value instanceof Collection && containsConfigObjects((Collection<?>) value)) {
+            List<Object> values = new ArrayList<>(((Collection<?>) value).size());
+            for (Object element : (Collection<?>) value) {
+                values.add(element == null ? null : toConfigValue(element));
+            }
+            return values;
+        }
+        if (TypeConverters.isConfigClass(value.getClass())) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            SubtypeTable.ofSubtype(value.getClass()).ifPresent(table -> values.put(table.key(), table.nameOf(value.getClass())));
+            for (KeyValuePair pair : getConfigValues(ConfigSchema.of(value.getClass()), value, false)) {
+                values.put(pair.getKey().orElseThrow(), pair.getValue().orElseThrow());
+            }
+            return values;
+        }
+        return value;
+    }
+
+    private static boolean containsConfigObjects(Collection<?> values) {
+
+        for (Object value : values) {
+            if (value != null && TypeConverters.isConfigClass(value.getClass())) return true;
+        }
+        return false;
     }
 }
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.util.*;
+
+/**
+ * Creates instances of immutable config classes, like records or classes with a {@link ConfigConstructor},
+ * by passing the config values as constructor arguments.
+ * <p>Config interfaces are bound to the constructor of their generated implementation, which takes one slot per getter.
+ * <p>The constructor is compiled into a single method handle once per {@link ConfigSchema}.
+ * Config fields that are not part of the constructor are set after the instance was created.
+ *
+ * @param <TConfig> the type of the config
+ */
+public final class ConstructorBinding<TConfig> {
+
+    /**
+     * @param configClass the config class that should be checked
+     * @return true if the config class is a record, a config interface or has a constructor annotated with {@link ConfigConstructor}
+     */
+    public static boolean isConstructorBound(@NonNull Class<?> configClass) {
+
+        if (configClass.isInterface()) return !configClass.isAnnotation() && !SubtypeTable.isPolymorphic(configClass);
+        return configClass.isRecord() || getAnnotatedConstructor(configClass).isPresent();
+    }
+
+    /**
+     * Compiles the constructor binding of the given config class.
+     *
+     * @param configClass the constructor bound config class
+     * @param configFields the scanned config fields of the class
+     * @param <TConfig> the type of the config
+     * @return the constructor binding
+     * @throws ConfigurationException if the class is not constructor bound, the constructor cannot be accessed
+     *                                or the implementation of a config interface cannot be generated
+     */
+    public static <TConfig> ConstructorBinding<TConfig> of(@NonNull Class<TConfig> configClass, @NonNull Map<String, ConfigFieldInformation> configFields) throws ConfigurationException {
+
+        if (configClass.isInterface()) {
+            InterfaceImplementation implementation = InterfaceImplementation.of(configClass);
+            List<String> names = new ArrayList<>();
+            List<Class<?>> types = new ArrayList<>();
+            for (Method method : implementation.methods()) {
+                names.add(InterfaceImplementation.propertyName(method));
+                types.add(method.getReturnType());
+            }
+            return bind(implementation.constructor(), names, types, configFields);
+        }
+
+        Constructor<?> constructor = getConstructor(configClass);
+        List<Field> argumentFields = getArgumentFields(configClass);
+        int argumentCount = argumentFields.size();
+
+        MethodHandle handle;
+        try {
+            constructor.setAccessible(true);
+            handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.genericMethodType(argumentCount))
+                    .asSpreader(Object[].class, argumentCount);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new ConfigurationException("Unable to access the constructor of config class \"" + configClass.getSimpleName() + "\": " + e.getMessage(), e);
+        }
+
+        List<String> names = new ArrayList<>();
+        List<Class<?>> types = new ArrayList<>();
+        for (Field field : argumentFields) {
+            names.add(field.getName());
+            types.add(field.getType());
+        }
+        return bind(handle, names, types, configFields);
+    }
+
+    private static <TConfig> ConstructorBinding<TConfig> bind(MethodHandle handle, List<String> argumentNames, List<Class<?>> argumentTypes, Map<String, ConfigFieldInformation> configFields) {
+
+        Map<String, ConfigFieldInformation> fieldsByName = new HashMap<>();
+        for (ConfigFieldInformation field : configFields.values()) {
+            fieldsByName.put(field.name(), field);
+        }
+
+        int argumentCount = argumentNames.size();
+        ConfigFieldInformation[] arguments = new ConfigFieldInformation[argumentCount];
+        Object[] defaults = new Object[argumentCount];
+        for (int i = 0; i < argumentCount; i++) {
+            arguments[i] = fieldsByName.remove(argumentNames.get(i));
+            defaults[i] = arguments[i] != null ? arguments[i].defaultValue() : ConfigUtil.getEmptyValue(argumentTypes.get(i));
+        }
+
+        for (ConfigFieldInformation field : fieldsByName.values()) {
+            if (field.accessor() == null || !field.accessor().writable()) {
+                throw new ConfigurationException("The config field " + field.identifier() + " is neither a constructor argument nor writable. "
+                        + "Add it to the @ConfigConstructor or remove the final modifier.");
+            }
+        }
+
+        return new ConstructorBinding<>(handle, arguments, defaults, fieldsByName.values().toArray(new ConfigFieldInformation[0]));
+    }
+
+    /**
+     * Gets the fields that are passed to the constructor of the constructor bound config class in the order of the parameters.
+     *
+     * @param configClass the constructor bound config class
+     * @return the fields of the constructor parameters
+     * @throws ConfigurationException if a constructor parameter has no matching field
+     */
+    static List<Field> getArgumentFields(Class<?> configClass) throws ConfigurationException {
+
+        List<Field> fields = new ArrayList<>();
+        Optional<Constructor<?>> annotatedConstructor = getAnnotatedConstructor(configClass);
+        if (annotatedConstructor.isPresent()) {
+            for (Parameter parameter : annotatedConstructor.get().getParameters()) {
+                if (!parameter.isNamePresent()) {
+                    throw new ConfigurationException("The parameter names of the @ConfigConstructor of \"" + configClass.getSimpleName()
+                            + "\" are not available. Compile your classes with the -parameters flag.");
+                }
+                fields.add(ReflectionUtil.getDeclaredField(configClass, parameter.getName())
+                        .orElseThrow(() -> new ConfigurationException("The @ConfigConstructor parameter \"" + parameter.getName()
+                                + "\" of \"" + configClass.getSimpleName() + "\" has no field with the same name.")));
+            }
+        } else {
+            for (RecordComponent component : configClass.getRecordComponents()) {
+                fields.add(ReflectionUtil.getDeclaredField(configClass, component.getName())
+                        .orElseThrow(() -> new ConfigurationException("Missing field of record component " + component.getName())));
+            }
+        }
+        return fields;
+    }
+
+    private static Constructor<?> getConstructor(Class<?> configClass) throws ConfigurationException {
+
+        Optional<Constructor<?>> annotatedConstructor = getAnnotatedConstructor(configClass);
+        if (annotatedConstructor.isPresent()) return annotatedConstructor.get();
+        if (!configClass.isRecord()) {
+            throw new ConfigurationException("The config class \"" + configClass.getSimpleName() + "\" is neither a record nor has a @ConfigConstructor.");
+        }
+
+        try {
+            Class<?>[] parameterTypes = Arrays.stream(configClass.getRecordComponents())
+                    .map(RecordComponent::getType)
+                    .toArray(Class<?>[]::new);
+            return configClass.getDeclaredConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new ConfigurationException("Unable to find the canonical constructor of record \"" + configClass.getSimpleName() + "\"", e);
+        }
+    }
+
+    private static Optional<Constructor<?>> getAnnotatedConstructor(Class<?> configClass) throws ConfigurationException {
+
+        Constructor<?> result = null;
+        for (Constructor<?> constructor : configClass.getDeclaredConstructors()) {
+            if (!constructor.isAnnotationPresent(ConfigConstructor.class)) continue;
+            if (result != null) {
+                throw new ConfigurationException("The config class \"" + configClass.getSimpleName() + "\" has more than one @ConfigConstructor.");
+            }
+            result = constructor;
+        }
+        return Optional.ofNullable(result);
+    }
+
+    private final MethodHandle constructor;
+    private final ConfigFieldInformation[] arguments;
+    private final Object[] defaults;
+    private final ConfigFieldInformation[] remainingFields;
+
+    private ConstructorBinding(MethodHandle constructor, ConfigFieldInformation[] arguments, Object[] defaults, ConfigFieldInformation[] remainingFields) {
+        this.constructor = constructor;
+        this.arguments = arguments;
+        this.defaults = defaults;
+        this.remainingFields = remainingFields;
+    }
+
+    /**
+     * Creates a new instance of the config class with the given config values.
+     * <p>Arguments without a value are filled with the default value of their config field.
+     *
+     * @param values the converted config values, e.g. from {@link ConfigUtil#loadConfigValues(ConfigSchema, List)}
+     * @return the new config instance
+     * @throws ConfigurationException if the constructor failed
+     */
+    @SuppressWarnings("unchecked")
+    public TConfig newInstance(@NonNull Map<ConfigFieldInformation, Object> values) throws ConfigurationException {
+
+        Object[] args = defaults.clone();
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] != null && values.containsKey(arguments[i])) {
+                args[i] = values.get(arguments[i]);
+            }
+        }
+
+        try {
+            Object instance = (Object) constructor.invokeExact(args);
+            TConfig config = (TConfig) instance;
+            for (ConfigFieldInformation field : remainingFields) {
+                if (values.containsKey(field)) {
+                    field.accessor().set(config, values.get(field));
+                }
+            }
+            return config;
+        } catch (ConfigurationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ConfigurationException("Unable to create instance of config class: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a new instance of the config class from converted positioned arguments.
+     * <p>Arguments without a value are filled with the default value of their config field.
+     *
+     * @param schema the schema whose position table the values belong to
+     * @param values the converted positioned arguments, e.g. from {@link ConfigUtil#loadArguments(ConfigSchema, Object[])}
+     * @return the new config instance
+     * @throws ConfigurationException if the constructor failed
+     */
+    @SuppressWarnings("unchecked")
+    TConfig newInstance(ConfigSchema<TConfig> schema, Object[] values) throws ConfigurationException {
+
+        Object[] args = defaults.clone();
+        boolean remaining = false;
+        for (int i = 0; i < values.length; i++) {
+            int argument = indexOf(schema.positionalField(i));
+            if (argument >= 0) {
+                args[argument] = values[i];
+            } else {
+                remaining = true;
+            }
+        }
+
+        try {
+            Object instance = (Object) constructor.invokeExact(args);
+            TConfig config = (TConfig) instance;
+            for (int i = 0; remaining && i < values.length; i++) {
+                ConfigFieldInformation field = schema.positionalField(i);
+                if (indexOf(field) < 0) {
+                    field.accessor().set(config, values[i]);
+                }
+            }
+            return config;
+        } catch (ConfigurationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ConfigurationException("Unable to create instance of config class: " + e.getMessage(), e);
+        }
+    }
+
+    private int indexOf(ConfigFieldInformation field) {
+
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] == field) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+import lombok.Value;
+import lombok.experimental.Accessors;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A bounded least recently used cache of converted string config values.
+ * <p>Share one cache between all config maps with {@link ConfigMap#cache(ConversionCache)} to only parse repeated
+ * values like {@code "true"}, {@code "10"} or the same comma separated list once per target type.
+ * Only immutable results are cached: strings, primitives and their wrappers, enums and arrays of them.
+ * Cached arrays are copied every time they are returned, because the bound config object may modify them.
+ * <p>The cached values and their types are held strongly until they are evicted. Call
+ * {@link ConfigMap#invalidate(ClassLoader)} when a plugin is disabled to release the types of the plugin.
+ */
+public final class ConversionCache {
+
+    /**
+     * The default number of converted values kept by a cache.
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    /**
+     * @return a new cache that holds up to {@link #DEFAULT_MAX_SIZE} values
+     */
+    public static ConversionCache create() {
+
+        return create(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize the maximum number of converted values kept in the cache
+     * @return a new cache with the given maximum size
+     */
+    public static ConversionCache create(int maxSize) {
+
+        if (maxSize < 1) throw new IllegalArgumentException("The max size of the conversion cache must be positive.");
+        ConversionCache cache = new ConversionCache(maxSize);
+        ClassCache.track(cache);
+        return cache;
+    }
+
+    private final Map<Key, Object> cache;
+    private final int maxSize;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private ConversionCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() <= ConversionCache.this.maxSize) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Converts the raw value into the type of the field and caches the result if it is immutable.
+     * <p>Values that are not strings and fields that are collections or maps are always converted.
+     *
+     * @param field the field the value is converted for
+     * @param value the raw config value
+     * @return the converted value
+     * @throws ConfigurationException if the value cannot be converted
+     */
+    public Object convert(@NonNull ConfigFieldInformation field, @NonNull Object value) throws ConfigurationException {
+
+        if (!(value instanceof String) || !isCacheable(field.type())) return field.convert(value);
+
+        Key key = new Key(field.genericType(), (String) value);
+        Object result;
+        synchronized (this) {
+            result = cache.get(key);
+            if (result != null) hits++;
+        }
+        if (result != null) return copy(result);
+
+        result = field.convert(value);
+        synchronized (this) {
+            misses++;
+            if (result != null) cache.put(key, copy(result));
+        }
+        return result;
+    }
+
+    /**
+     * @return the current hit and miss statistics of the cache
+     */
+    public synchronized Stats stats() {
+
+        return new Stats(cache.size(), hits, misses, evictions);
+    }
+
+    /**
+     * Removes all cached values and resets the statistics.
+     */
+    public synchronized void clear() {
+
+        cache.clear();
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * Removes all cached values of types that were loaded by the given class loader or one of its children,
+     * e.g. the enums of a plugin that is disabled.
+     * <p>This is called for every cache by {@link ConfigMap#invalidate(ClassLoader)}.
+     *
+     * @param classLoader the class loader whose types should be removed
+     */
+    public synchronized void invalidate(@NonNull ClassLoader classLoader) {
+
+        cache.keySet().removeIf(key -> {
+            Class<?> type = TypeConverters.getRawType(key.type);
+            while (type.isArray()) type = type.getComponentType();
+            return ClassCache.isLoadedBy(type.getClassLoader(), classLoader);
+        });
+    }
+
+    private static boolean isCacheable(Class<?> type) {
+
+        if (type.isArray()) return isImmutable(type.getComponentType());
+        return isImmutable(type);
+    }
+
+    private static boolean isImmutable(Class<?> type) {
+
+        return type.isPrimitive() || type.isEnum() || type == String.class || type == Boolean.class
+                || type == Character.class || Number.class.isAssignableFrom(type) && type.getName().startsWith("java.lang.");
+    }
+
+    private static Object copy(Object value) {
+
+        if (!value.getClass().isArray()) return value;
+        int length = Array.getLength(value);
+        Object copy = Array.newInstance(value.getClass().getComponentType(), length);
+        System.arraycopy(value, 0, copy, 0, length);
+        return copy;
+    }
+
+    /**
+     * The statistics of a {@link ConversionCache}.
+     */
+    @Value
+    @Accessors(fluent = true)
+    public static class Stats {
+
+        int size;
+        long hits;
+        long misses;
+        long evictions;
+
+        /**
+         * @return the ratio of cache hits to all cacheable conversions or 0 if nothing was converted yet
+         */
+        public double hitRate() {
+
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+
+    private static final class Key {
+
+        private final Type type;
+        private final String value;
+        private final int hash;
+
+        private Key(Type type, String value) {
+            this.type = type;
+            this.value = value;
+            this.hash = 31 * type.hashCode() + value.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return hash == key.hash && value.equals(key.value) && Objects.equals(type, key.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
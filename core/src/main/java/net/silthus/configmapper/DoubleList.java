@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of doubles that is backed by a {@code double[]} instead of boxed doubles.
+ * <p>Config fields of type {@code List<Double>} are filled with this list if they are annotated with
+ * {@code @ConfigOption(compact = true)}. Use {@link #getDouble(int)} to read the values without boxing.
+ */
+public final class DoubleList extends AbstractList<Double> implements RandomAccess {
+
+    public static DoubleList of(@NonNull double... values) {
+
+        return new DoubleList(values.clone());
+    }
+
+    static DoubleList wrap(double[] values) {
+
+        return new DoubleList(values);
+    }
+
+    private final double[] values;
+
+    private DoubleList(double[] values) {
+        this.values = values;
+    }
+
+    public double getDouble(int index) {
+
+        return values[index];
+    }
+
+    public double[] toDoubleArray() {
+
+        return values.clone();
+    }
+
+    @Override
+    public Double get(int index) {
+
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+
+        return values.length;
+    }
+
+    @Override
+    public String toString() {
+
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A {@link ConfigSource} that maps the dotted identifiers of config fields onto the names of
+ * environment variables or system properties.
+ * <p>Every segment of the identifier is formatted with a {@link FieldNameFormatter}, joined with a separator
+ * and prefixed, e.g. the identifier {@code database.pool_size} is read from the environment variable
+ * {@code MYPLUGIN_DATABASE_POOL_SIZE} or from the system property {@code -Dmyplugin.database.pool_size}.
+ * <p>The environment is copied once and shared by all sources. The mapped names are cached per source,
+ * which means every identifier is only formatted once.
+ */
+public final class EnvironmentConfigSource implements ConfigSource {
+
+    private static final Lazy<Map<String, String>> ENVIRONMENT = Lazy.of(() -> Map.copyOf(System.getenv()));
+
+    /**
+     * Creates a source that reads environment variables with {@link FieldNameFormatters#UPPER_UNDERSCORE} names.
+     *
+     * @param prefix the prefix of the variables, e.g. {@code MYPLUGIN}, or an empty string
+     * @return the source of the environment variables
+     */
+    public static EnvironmentConfigSource environment(@NonNull String prefix) {
+
+        return of(ENVIRONMENT.get(), prefix, FieldNameFormatters.UPPER_UNDERSCORE, "_");
+    }
+
+    /**
+     * Creates a source that reads system properties with {@link FieldNameFormatters#LOWER_UNDERSCORE} names.
+     * <p>The properties are read when the config is applied and not copied.
+     *
+     * @param prefix the prefix of the properties, e.g. {@code myplugin}, or an empty string
+     * @return the source of the system properties
+     */
+    public static EnvironmentConfigSource systemProperties(@NonNull String prefix) {
+
+        return new EnvironmentConfigSource(System::getProperty, prefix, FieldNameFormatters.LOWER_UNDERSCORE, ".");
+    }
+
+    /**
+     * Creates a source that reads from the given variables.
+     *
+     * @param variables the variables, e.g. a copy of the environment
+     * @param prefix the prefix of the variable names or an empty string
+     * @param formatter the formatter applied to every segment of the identifier
+     * @param separator the separator used to join the prefix and the formatted segments
+     * @return the source of the variables
+     */
+    public static EnvironmentConfigSource of(@NonNull Map<String, String> variables, @NonNull String prefix,
+                                             @NonNull FieldNameFormatter formatter, @NonNull String separator) {
+
+        return new EnvironmentConfigSource(variables::get, prefix, formatter, separator);
+    }
+
+    private final Function<String, String> lookup;
+    private final String prefix;
+    private final FieldNameFormatter formatter;
+    private final String separator;
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    private EnvironmentConfigSource(Function<String, String> lookup, String prefix, FieldNameFormatter formatter, String separator) {
+        this.lookup = lookup;
+        this.prefix = prefix.endsWith(separator) ? prefix.substring(0, prefix.length() - separator.length()) : prefix;
+        this.formatter = formatter;
+        this.separator = separator;
+    }
+
+    @Override
+    public Optional<Object> get(@NonNull String key) {
+
+        return Optional.ofNullable(lookup.apply(name(key)));
+    }
+
+    /**
+     * @param identifier the dotted identifier of a config field
+     * @return the name of the variable the config field is read from
+     */
+    public String name(@NonNull String identifier) {
+
+        return names.computeIfAbsent(identifier, this::format);
+    }
+
+    private String format(String identifier) {
+
+        StringBuilder name = new StringBuilder(prefix.length() + identifier.length() + separator.length());
+        name.append(prefix);
+        int start = 0;
+        int end;
+        do {
+            end = identifier.indexOf('.', start);
+            String segment = identifier.substring(start, end < 0 ? identifier.length() : end);
+            if (name.length() > 0) name.append(separator);
+            name.append(formatter.fromFieldName(segment));
+            start = end + 1;
+        } while (end >= 0);
+        return name.toString();
+    }
+}
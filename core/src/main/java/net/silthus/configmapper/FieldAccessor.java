@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+
+/**
+ * Reads and writes the value of a single config field using method handles that are compiled once
+ * when the config class is scanned.
+ * <p>Fields of nested config objects are accessed through a fixed chain of parent getters that
+ * leads from the root config object to the object declaring the field.
+ * Missing nested config objects are created on write if they have a parameterless constructor.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    /**
+     * Compiles the accessor for the given field.
+     * <p>All fields must already be accessible.
+     *
+     * @param parents the chain of nested config fields starting at the root config class
+     * @param field the field that should be accessed
+     * @return the compiled accessor
+     * @throws ConfigurationException if the method handles could not be created
+     */
+    static FieldAccessor of(List<Field> parents, Field field) throws ConfigurationException {
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle[] parentGetters = new MethodHandle[parents.size()];
+            MethodHandle[] parentSetters = new MethodHandle[parents.size()];
+            MethodHandle[] parentConstructors = new MethodHandle[parents.size()];
+            for (int i = 0; i < parents.size(); i++) {
+                Field parent = parents.get(i);
+                parentGetters[i] = lookup.unreflectGetter(parent).asType(GETTER_TYPE);
+                parentSetters[i] = lookup.unreflectSetter(parent).asType(SETTER_TYPE);
+                parentConstructors[i] = findConstructor(lookup, parent.getType());
+            }
+            MethodHandle setter = Modifier.isFinal(field.getModifiers()) ? null : lookup.unreflectSetter(field).asType(SETTER_TYPE);
+
+            return new FieldAccessor(parentGetters, parentSetters, parentConstructors, lookup.unreflectGetter(field).asType(GETTER_TYPE), setter);
+        } catch (IllegalAccessException e) {
+            throw new ConfigurationException("Unable to access config field \"" + field.getName() + "\": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates a read only accessor that reads the value with the given getter handle,
+     * e.g. the getter method of a config interface.
+     *
+     * @param getter the handle reading the value from the root config object
+     * @return the read only accessor
+     */
+    static FieldAccessor of(MethodHandle getter) {
+
+        return new FieldAccessor(new MethodHandle[0], new MethodHandle[0], new MethodHandle[0], getter.asType(GETTER_TYPE), null);
+    }
+
+    private static MethodHandle findConstructor(MethodHandles.Lookup lookup, Class<?> type) {
+
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return lookup.unreflectConstructor(constructor).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private final MethodHandle[] parentGetters;
+    private final MethodHandle[] parentSetters;
+    private final MethodHandle[] parentConstructors;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    private FieldAccessor(MethodHandle[] parentGetters, MethodHandle[] parentSetters, MethodHandle[] parentConstructors, MethodHandle getter, MethodHandle setter) {
+        this.parentGetters = parentGetters;
+        this.parentSetters = parentSetters;
+        this.parentConstructors = parentConstructors;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * @return true if the value of the field can be set with {@link #set(Object, Object)}
+     */
+    public boolean writable() {
+
+        return setter != null;
+    }
+
+    /**
+     * Reads the value of the field from the given root config object.
+     *
+     * @param config the root config object
+     * @return the value of the field or null if the field or one of its parent config objects is null
+     * @throws ConfigurationException if the value could not be read
+     */
+    public Object get(Object config) throws ConfigurationException {
+
+        try {
+            Object target = config;
+            for (MethodHandle parentGetter : parentGetters) {
+                target = (Object) parentGetter.invokeExact(target);
+                if (target == null) return null;
+            }
+            return (Object) getter.invokeExact(target);
+        } catch (ConfigurationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ConfigurationException(e);
+        }
+    }
+
+    /**
+     * Sets the value of the field inside the given root config object.
+     * <p>Nested config objects that are null are created on the way to the field.
+     *
+     * @param config the root config object
+     * @param value the value that should be set
+     * @throws ConfigurationException if the field is final or the value could not be set
+     */
+    public void set(Object config, Object value) throws ConfigurationException {
+
+        if (setter == null) {
+            throw new ConfigurationException("Cannot set the value of a final config field.");
+        }
+
+        try {
+            Object target = config;
+            for (int i = 0; i < parentGetters.length; i++) {
+                Object parent = target;
+                target = (Object) parentGetters[i].invokeExact(parent);
+                if (target == null) {
+                    if (parentConstructors[i] == null) {
+                        throw new ConfigurationException("Unable to create nested config object inside "
+                                + parent.getClass().getCanonicalName() + ". Does it have a parameterless constructor?");
+                    }
+                    target = (Object) parentConstructors[i].invokeExact();
+                    parentSetters[i].invokeExact(parent, target);
+                }
+            }
+            setter.invokeExact(target, value);
+        } catch (ConfigurationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ConfigurationException(e);
+        }
+    }
+}
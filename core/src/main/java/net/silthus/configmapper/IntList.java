@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of ints that is backed by an {@code int[]} instead of boxed integers.
+ * <p>Config fields of type {@code List<Integer>} are filled with this list if they are annotated with
+ * {@code @ConfigOption(compact = true)}. Use {@link #getInt(int)} to read the values without boxing.
+ */
+public final class IntList extends AbstractList<Integer> implements RandomAccess {
+
+    public static IntList of(@NonNull int... values) {
+
+        return new IntList(values.clone());
+    }
+
+    static IntList wrap(int[] values) {
+
+        return new IntList(values);
+    }
+
+    private final int[] values;
+
+    private IntList(int[] values) {
+        this.values = values;
+    }
+
+    public int getInt(int index) {
+
+        return values[index];
+    }
+
+    public int[] toIntArray() {
+
+        return values.clone();
+    }
+
+    @Override
+    public Integer get(int index) {
+
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+
+        return values.length;
+    }
+
+    @Override
+    public String toString() {
+
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,599 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * The generated implementation of a config interface.
+ * <p>The implementation is a hidden class that is defined once per config interface. It stores every
+ * config value in a final field of the exact type of its getter and is created by a constructor that
+ * takes the values as a single slot array. Lists, sets and maps are stored as unmodifiable copies and
+ * arrays are copied when they are stored and when they are returned by their getter. All other getters
+ * are plain field reads, which makes the instances immutable and safe to share between threads.
+ * Getters of collections and maps must therefore return one of their interfaces, e.g. {@code List} or {@code Map}.
+ * <p>The config fields of an interface are its abstract parameterless getters and all default
+ * methods that are annotated with {@link ConfigOption}. The result of such a default method is used
+ * as the default value of the config field. Other getters of the interface return their empty value
+ * while the default value is computed.
+ * <p>The interface must be accessible to config-mapper with full privileges, i.e. it must live in the
+ * same module, which is the case for every class on the classpath of the same class loader.
+ */
+final class InterfaceImplementation {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int CLASS_VERSION = 60;
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int DUP = 0x59;
+    private static final int AALOAD = 0x32;
+    private static final int IRETURN = 0xac;
+    private static final int LRETURN = 0xad;
+    private static final int FRETURN = 0xae;
+    private static final int DRETURN = 0xaf;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int CHECKCAST = 0xc0;
+    private static final int IFNULL = 0xc6;
+
+    private static final int SAME_LOCALS_1_STACK_ITEM = 64;
+    private static final int ITEM_OBJECT = 7;
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String DEFAULT_PREFIX = "default$";
+
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+            Collection.class, List.class, Set.class, SortedSet.class, NavigableSet.class,
+            Map.class, SortedMap.class, NavigableMap.class,
+            IntList.class, LongList.class, DoubleList.class
+    );
+
+    private static final ClassCache<InterfaceImplementation> IMPLEMENTATIONS = ClassCache.of(InterfaceImplementation::new);
+
+    /**
+     * @param type the type that should be checked
+     * @return true if the type is an interface that declares config options on itself or one of its getters
+     */
+    static boolean isConfigInterface(Class<?> type) {
+
+        if (!type.isInterface() || type.isAnnotation()) return false;
+        if (type.isAnnotationPresent(ConfigOption.class)) return true;
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(ConfigOption.class)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the implementation of the given config interface and generates it on first use.
+     *
+     * @param type the config interface
+     * @return the generated implementation
+     * @throws ConfigurationException if the type is no interface, declares methods that are no getters
+     *                                or if the implementation could not be defined
+     */
+    static InterfaceImplementation of(Class<?> type) throws ConfigurationException {
+
+        if (!type.isInterface() || type.isAnnotation()) {
+            throw new ConfigurationException("\"" + type.getSimpleName() + "\" is not an interface.");
+        }
+        return IMPLEMENTATIONS.get(type);
+    }
+
+    /**
+     * Gets the name of the property returned by the given getter.
+     * <p>The {@code get} prefix and the {@code is} prefix of boolean getters are removed.
+     *
+     * @param method the getter
+     * @return the property name, e.g. {@code maxPlayers} for {@code getMaxPlayers()}
+     */
+    static String propertyName(Method method) {
+
+        String name = method.getName();
+        if (name.length() > 3 && name.startsWith("get") && Character.isUpperCase(name.charAt(3))) {
+            return decapitalize(name.substring(3));
+        }
+        boolean bool = method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class;
+        if (bool && name.length() > 2 && name.startsWith("is") && Character.isUpperCase(name.charAt(2))) {
+            return decapitalize(name.substring(2));
+        }
+        return name;
+    }
+
+    private static String decapitalize(String name) {
+
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private final Class<?> type;
+    private final List<Method> methods;
+    private final Class<?> implementationClass;
+    private final MethodHandle constructor;
+    private final Map<Method, MethodHandle> getters = new HashMap<>();
+    private final Map<Method, MethodHandle> defaults = new HashMap<>();
+    private final Lazy<Object> emptyInstance;
+
+    private InterfaceImplementation(Class<?> type) throws ConfigurationException {
+
+        this.type = type;
+        this.methods = getterMethods(type);
+
+        try {
+            MethodHandles.Lookup interfaceLookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            MethodHandles.Lookup lookup = interfaceLookup.defineHiddenClass(generate(), true);
+            this.implementationClass = lookup.lookupClass();
+            MethodHandle copyValues = MethodHandles.lookup()
+                    .findVirtual(InterfaceImplementation.class, "copyValues", MethodType.methodType(Object[].class, Object[].class))
+                    .bindTo(this);
+            this.constructor = MethodHandles.filterArguments(lookup.findConstructor(implementationClass, MethodType.methodType(void.class, Object[].class)), 0, copyValues)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            for (Method method : methods) {
+                getters.put(method, interfaceLookup.unreflect(method));
+                if (method.isDefault()) {
+                    defaults.put(method, lookup.findVirtual(implementationClass, DEFAULT_PREFIX + method.getName(), MethodType.methodType(method.getReturnType()))
+                            .asType(MethodType.methodType(Object.class, Object.class)));
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            throw new ConfigurationException("Unable to generate the implementation of config interface \"" + type.getSimpleName() + "\": " + e.getMessage(), e);
+        }
+
+        this.emptyInstance = Lazy.of(() -> newInstance(methods.stream()
+                .map(method -> ConfigUtil.getEmptyValue(method.getReturnType()))
+                .toArray()));
+    }
+
+    /**
+     * @return the getters that are implemented as config fields in the order of the constructor slots
+     */
+    List<Method> methods() {
+
+        return methods;
+    }
+
+    /**
+     * @return the generated hidden class implementing the config interface
+     */
+    Class<?> implementationClass() {
+
+        return implementationClass;
+    }
+
+    /**
+     * @return the constructor of the implementation taking the values of all slots as {@code (Object[])Object}
+     */
+    MethodHandle constructor() {
+
+        return constructor;
+    }
+
+    /**
+     * @param method one of the {@link #methods()}
+     * @return a handle invoking the getter on any implementation of the interface
+     */
+    MethodHandle getter(Method method) {
+
+        return getters.get(method);
+    }
+
+    /**
+     * Gets the default value of the given getter.
+     *
+     * @param method one of the {@link #methods()}
+     * @return the result of the default method or the empty value of the return type for abstract getters
+     * @throws ConfigurationException if the default method failed
+     */
+    Object defaultValue(Method method) throws ConfigurationException {
+
+        MethodHandle handle = defaults.get(method);
+        if (handle == null) return ConfigUtil.getEmptyValue(method.getReturnType());
+
+        try {
+            return (Object) handle.invokeExact(emptyInstance.get());
+        } catch (ConfigurationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ConfigurationException("Unable to get the default value of \"" + method.getName() + "\" from config interface \""
+                    + type.getSimpleName() + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private Object newInstance(Object[] values) throws ConfigurationException {
+
+        try {
+            return (Object) constructor.invokeExact(values);
+        } catch (Throwable e) {
+            throw new ConfigurationException("Unable to create instance of config interface \"" + type.getSimpleName() + "\": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Copies all mutable values before they are stored in the final fields of a new instance.
+     * <p>The copies keep null elements and the iteration order of the converted values.
+     *
+     * @param values the values of the slots
+     * @return a copy of the values with unmodifiable copies of all lists, sets and maps and copies of all arrays
+     */
+    private Object[] copyValues(Object[] values) {
+
+        Object[] copy = values.clone();
+        for (int i = 0; i < copy.length && i < methods.size(); i++) {
+            Object value = copy[i];
+            if (value == null) continue;
+            Class<?> slotType = methods.get(i).getReturnType();
+            if (slotType.isArray()) {
+                copy[i] = copyArray(value);
+            } else if (value instanceof SortedSet) {
+                copy[i] = Collections.unmodifiableNavigableSet(new TreeSet<>((SortedSet<?>) value));
+            } else if (value instanceof Set) {
+                copy[i] = Collections.unmodifiableSet(new LinkedHashSet<>((Set<?>) value));
+            } else if (value instanceof Collection && !isImmutableList(value)) {
+                copy[i] = Collections.unmodifiableList(new ArrayList<>((Collection<?>) value));
+            } else if (value instanceof SortedMap) {
+                copy[i] = Collections.unmodifiableNavigableMap(new TreeMap<>((SortedMap<?, ?>) value));
+            } else if (value instanceof Map) {
+                copy[i] = Collections.unmodifiableMap(new LinkedHashMap<>((Map<?, ?>) value));
+            }
+        }
+        return copy;
+    }
+
+    private static boolean isImmutableList(Object value) {
+
+        return value instanceof IntList || value instanceof LongList || value instanceof DoubleList;
+    }
+
+    /**
+     * Checks that the getter returns a type that can be stored as an unmodifiable copy.
+     * <p>Collections and maps must be declared with one of their interfaces, because unmodifiable copies
+     * of concrete types like {@link ArrayList} or {@link HashMap} cannot be created.
+     *
+     * @param type the config interface
+     * @param method the getter of the config field
+     * @throws ConfigurationException if the getter returns a mutable collection or map type
+     */
+    private static void checkImmutable(Class<?> type, Method method) throws ConfigurationException {
+
+        Class<?> returnType = method.getReturnType();
+        if (!Collection.class.isAssignableFrom(returnType) && !Map.class.isAssignableFrom(returnType)) return;
+        if (IMMUTABLE_TYPES.contains(returnType)) return;
+        throw new ConfigurationException("The getter \"" + method.getName() + "\" of config interface \"" + type.getSimpleName()
+                + "\" returns the mutable type " + returnType.getSimpleName() + ". Use one of "
+                + "Collection, List, Set, SortedSet, NavigableSet, Map, SortedMap or NavigableMap instead.");
+    }
+
+    private static Object copyArray(Object array) {
+
+        int length = java.lang.reflect.Array.getLength(array);
+        Object copy = java.lang.reflect.Array.newInstance(array.getClass().getComponentType(), length);
+        System.arraycopy(array, 0, copy, 0, length);
+        return copy;
+    }
+
+    private static List<Method> getterMethods(Class<?> type) throws ConfigurationException {
+
+        Map<String, Method> getters = new TreeMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || isObjectMethod(method)) continue;
+            if (method.isDefault() && !method.isAnnotationPresent(ConfigOption.class)) continue;
+            if (method.getParameterCount() > 0 || method.getReturnType() == void.class) {
+                throw new ConfigurationException("The method \"" + method.getName() + "\" of config interface \"" + type.getSimpleName()
+                        + "\" is not a getter. Config interfaces can only declare getters without parameters and default methods.");
+            }
+            getters.merge(method.getName(), method, (existing, other) ->
+                    existing.getReturnType().isAssignableFrom(other.getReturnType()) ? other : existing);
+        }
+        for (Method method : getters.values()) {
+            checkImmutable(type, method);
+        }
+        return List.copyOf(getters.values());
+    }
+
+    private static boolean isObjectMethod(Method method) {
+
+        try {
+            Object.class.getMethod(method.getName(), method.getParameterTypes());
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private byte[] generate() {
+
+        String className = type.getName().replace('.', '/') + "$ConfigImpl";
+        ConstantPool pool = new ConstantPool();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        try {
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.writeShort(pool.classRef(className));
+            out.writeShort(pool.classRef(OBJECT));
+            out.writeShort(1);
+            out.writeShort(pool.classRef(internalName(type)));
+
+            out.writeShort(methods.size());
+            for (int i = 0; i < methods.size(); i++) {
+                out.writeShort(ACC_PRIVATE | ACC_FINAL);
+                out.writeShort(pool.utf8(slotName(i)));
+                out.writeShort(pool.utf8(methods.get(i).getReturnType().descriptorString()));
+                out.writeShort(0);
+            }
+
+            int defaultMethods = (int) methods.stream().filter(Method::isDefault).count();
+            out.writeShort(1 + methods.size() + defaultMethods);
+            writeConstructor(out, pool, className);
+            for (int i = 0; i < methods.size(); i++) {
+                writeGetter(out, pool, className, i);
+            }
+            for (Method method : methods) {
+                if (method.isDefault()) writeDefaultBridge(out, pool, method);
+            }
+            out.writeShort(0);
+
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            DataOutputStream classFile = new DataOutputStream(result);
+            classFile.writeInt(MAGIC);
+            classFile.writeShort(0);
+            classFile.writeShort(CLASS_VERSION);
+            pool.writeTo(classFile);
+            body.writeTo(classFile);
+            return result.toByteArray();
+        } catch (IOException e) {
+            throw new ConfigurationException("Unable to generate the implementation of config interface \"" + type.getSimpleName() + "\"", e);
+        }
+    }
+
+    private void writeConstructor(DataOutputStream out, ConstantPool pool, String className) throws IOException {
+
+        Code code = new Code();
+        code.op(ALOAD_0);
+        code.op(INVOKESPECIAL).u2(pool.methodRef(OBJECT, "<init>", "()V", false));
+        for (int i = 0; i < methods.size(); i++) {
+            Class<?> slotType = methods.get(i).getReturnType();
+            code.op(ALOAD_0).op(ALOAD_1).pushInt(i).op(AALOAD);
+            if (slotType.isPrimitive()) {
+                Class<?> wrapper = MethodType.methodType(slotType).wrap().returnType();
+                code.op(CHECKCAST).u2(pool.classRef(internalName(wrapper)));
+                code.op(INVOKEVIRTUAL).u2(pool.methodRef(internalName(wrapper), slotType.getName() + "Value",
+                        MethodType.methodType(slotType).toMethodDescriptorString(), false));
+            } else if (slotType != Object.class) {
+                code.op(CHECKCAST).u2(pool.classRef(internalName(slotType)));
+            }
+            code.op(PUTFIELD).u2(pool.fieldRef(className, slotName(i), slotType.descriptorString()));
+        }
+        code.op(RETURN);
+
+        writeMethod(out, pool, "<init>", "([Ljava/lang/Object;)V", 3, 2, code, null);
+    }
+
+    private void writeGetter(DataOutputStream out, ConstantPool pool, String className, int slot) throws IOException {
+
+        Method method = methods.get(slot);
+        Class<?> slotType = method.getReturnType();
+        String descriptor = MethodType.methodType(slotType).toMethodDescriptorString();
+        Code code = new Code();
+        code.op(ALOAD_0);
+        code.op(GETFIELD).u2(pool.fieldRef(className, slotName(slot), slotType.descriptorString()));
+        if (!slotType.isArray()) {
+            code.op(returnOpcode(slotType));
+            writeMethod(out, pool, method.getName(), descriptor, 2, 1, code, null);
+            return;
+        }
+
+        // arrays are returned as copies: value == null ? null : (T[]) value.clone()
+        int arrayClass = pool.classRef(internalName(slotType));
+        code.op(DUP);
+        code.op(IFNULL).u2(9);
+        code.op(INVOKEVIRTUAL).u2(pool.methodRef(internalName(slotType), "clone", "()Ljava/lang/Object;", false));
+        code.op(CHECKCAST).u2(arrayClass);
+        int returnOffset = code.size();
+        code.op(ARETURN);
+
+        ByteArrayOutputStream stackMap = new ByteArrayOutputStream();
+        DataOutputStream frames = new DataOutputStream(stackMap);
+        frames.writeShort(1);
+        frames.writeByte(SAME_LOCALS_1_STACK_ITEM + returnOffset);
+        frames.writeByte(ITEM_OBJECT);
+        frames.writeShort(arrayClass);
+
+        writeMethod(out, pool, method.getName(), descriptor, 2, 1, code, stackMap.toByteArray());
+    }
+
+    private void writeDefaultBridge(DataOutputStream out, ConstantPool pool, Method method) throws IOException {
+
+        String descriptor = MethodType.methodType(method.getReturnType()).toMethodDescriptorString();
+        Code code = new Code();
+        code.op(ALOAD_0);
+        code.op(INVOKESPECIAL).u2(pool.methodRef(internalName(type), method.getName(), descriptor, true));
+        code.op(returnOpcode(method.getReturnType()));
+
+        writeMethod(out, pool, DEFAULT_PREFIX + method.getName(), descriptor, 2, 1, code, null);
+    }
+
+    private static void writeMethod(DataOutputStream out, ConstantPool pool, String name, String descriptor, int maxStack, int maxLocals,
+                                    Code code, byte[] stackMap) throws IOException {
+
+        byte[] bytes = code.toByteArray();
+        int stackMapName = stackMap == null ? 0 : pool.utf8("StackMapTable");
+        out.writeShort(ACC_PUBLIC);
+        out.writeShort(pool.utf8(name));
+        out.writeShort(pool.utf8(descriptor));
+        out.writeShort(1);
+        out.writeShort(pool.utf8("Code"));
+        out.writeInt(12 + bytes.length + (stackMap == null ? 0 : 6 + stackMap.length));
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeShort(0);
+        if (stackMap == null) {
+            out.writeShort(0);
+        } else {
+            out.writeShort(1);
+            out.writeShort(stackMapName);
+            out.writeInt(stackMap.length);
+            out.write(stackMap);
+        }
+    }
+
+    private static int returnOpcode(Class<?> type) {
+
+        if (type == long.class) return LRETURN;
+        if (type == float.class) return FRETURN;
+        if (type == double.class) return DRETURN;
+        if (type.isPrimitive()) return IRETURN;
+        return ARETURN;
+    }
+
+    private static String slotName(int slot) {
+
+        return "slot" + slot;
+    }
+
+    private static String internalName(Class<?> type) {
+
+        return type.isArray() ? type.descriptorString() : type.getName().replace('.', '/');
+    }
+
+    private static final class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        Code pushInt(int value) {
+            if (value <= 5) return op(ICONST_0 + value);
+            if (value <= Byte.MAX_VALUE) return op(BIPUSH).op(value);
+            return op(SIPUSH).u2(value);
+        }
+
+        int size() {
+            return bytes.size();
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int FIELD_REF = 9;
+        private static final int METHOD_REF = 10;
+        private static final int INTERFACE_METHOD_REF = 11;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int count = 1;
+
+        int utf8(String value) throws IOException {
+            Integer index = entries.get("U" + value);
+            if (index != null) return index;
+            out.writeByte(UTF8);
+            out.writeUTF(value);
+            return add("U" + value);
+        }
+
+        int classRef(String internalName) throws IOException {
+            Integer index = entries.get("C" + internalName);
+            if (index != null) return index;
+            int name = utf8(internalName);
+            out.writeByte(CLASS);
+            out.writeShort(name);
+            return add("C" + internalName);
+        }
+
+        int fieldRef(String owner, String name, String descriptor) throws IOException {
+            return memberRef(FIELD_REF, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor, boolean ownerIsInterface) throws IOException {
+            return memberRef(ownerIsInterface ? INTERFACE_METHOD_REF : METHOD_REF, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) throws IOException {
+            String key = tag + owner + "." + name + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            int ownerIndex = classRef(owner);
+            int nameAndType = nameAndType(name, descriptor);
+            out.writeByte(tag);
+            out.writeShort(ownerIndex);
+            out.writeShort(nameAndType);
+            return add(key);
+        }
+
+        private int nameAndType(String name, String descriptor) throws IOException {
+            String key = "N" + name + ":" + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) return index;
+            int nameIndex = utf8(name);
+            int descriptorIndex = utf8(descriptor);
+            out.writeByte(NAME_AND_TYPE);
+            out.writeShort(nameIndex);
+            out.writeShort(descriptorIndex);
+            return add(key);
+        }
+
+        private int add(String key) {
+            int index = count++;
+            entries.put(key, index);
+            return index;
+        }
+
+        void writeTo(DataOutputStream classFile) throws IOException {
+            classFile.writeShort(count);
+            bytes.writeTo(classFile);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads the values of the declared config fields from very large flat {@code key=value} files.
+ * <p>The file is mapped into memory in chunks, which allows reading files larger than 2 GB without loading them
+ * onto the heap. The keys are compared byte by byte against a table of the UTF-8 encoded identifiers and aliases
+ * of the schema. Unknown keys are skipped without creating any objects, only the values of declared keys are decoded.
+ * <p>Every line contains a single key and value separated by {@code =} or {@code :}. Keys and values are trimmed.
+ * Lines starting with {@code #} or {@code !} are comments. Escape sequences and line continuations are not supported.
+ * If a key is used more than once the last value wins.
+ */
+public final class KeyValueFileReader {
+
+    private static final int DEFAULT_CHUNK_SIZE = 256 * 1024 * 1024;
+
+    /**
+     * @param schema the schema that declares the keys that should be read
+     * @return a reader for the declared keys of the schema
+     */
+    public static KeyValueFileReader of(@NonNull ConfigSchema<?> schema) {
+
+        return new KeyValueFileReader(schema, DEFAULT_CHUNK_SIZE);
+    }
+
+    private final ConfigSchema<?> schema;
+    private final KeyTable keys;
+    private final int chunkSize;
+
+    private KeyValueFileReader(ConfigSchema<?> schema, int chunkSize) {
+        this.schema = schema;
+        this.keys = new KeyTable(schema);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param chunkSize the maximum number of bytes that are mapped at once
+     * @return a reader that maps the file in chunks of the given size
+     */
+    KeyValueFileReader chunkSize(int chunkSize) {
+
+        return new KeyValueFileReader(schema, chunkSize);
+    }
+
+    /**
+     * Reads the values of all declared config fields from the given file.
+     *
+     * @param file the UTF-8 encoded key value file
+     * @return the key value pairs of the declared config fields that are present in the file,
+     *         in the order of the config fields, which can be passed to {@link ConfigMap#with(java.util.Collection)}
+     * @throws ConfigurationException if the file cannot be read or contains a line that is longer than a chunk
+     */
+    public List<KeyValuePair> read(@NonNull Path file) throws ConfigurationException {
+
+        String[] values = new String[keys.fields.length];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long offset = 0;
+            byte[] valueBuffer = new byte[64];
+            while (offset < size) {
+                long length = Math.min(chunkSize, size - offset);
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                boolean last = offset + length == size;
+                int consumed = readChunk(chunk, (int) length, last, values, valueBuffer);
+                if (consumed == 0) {
+                    throw new ConfigurationException("The file " + file + " contains a line at byte " + offset + " that is longer than " + chunkSize + " bytes.");
+                }
+                offset += consumed;
+            }
+        } catch (IOException e) {
+            throw new ConfigurationException("Unable to read the file " + file + ": " + e.getMessage(), e);
+        }
+
+        List<KeyValuePair> pairs = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) pairs.add(KeyValuePair.of(keys.fields[i].identifier(), values[i]));
+        }
+        return pairs;
+    }
+
+    /**
+     * Reads all complete lines of the chunk.
+     *
+     * @return the number of bytes that were consumed, which excludes an incomplete last line
+     */
+    private int readChunk(ByteBuffer chunk, int length, boolean last, String[] values, byte[] valueBuffer) {
+
+        int position = 0;
+        while (position < length) {
+            int lineEnd = position;
+            while (lineEnd < length && chunk.get(lineEnd) != '\n') lineEnd++;
+            if (lineEnd == length && !last) return position;
+
+            readLine(chunk, position, lineEnd, values, valueBuffer);
+            position = lineEnd + 1;
+        }
+        return length;
+    }
+
+    private void readLine(ByteBuffer chunk, int start, int end, String[] values, byte[] valueBuffer) {
+
+        while (start < end && isWhitespace(chunk.get(start))) start++;
+        if (start == end || chunk.get(start) == '#' || chunk.get(start) == '!') return;
+
+        int separator = start;
+        while (separator < end && chunk.get(separator) != '=' && chunk.get(separator) != ':') separator++;
+        if (separator == end) return;
+
+        int keyEnd = separator;
+        while (keyEnd > start && isWhitespace(chunk.get(keyEnd - 1))) keyEnd--;
+        int field = keys.find(chunk, start, keyEnd);
+        if (field < 0) return;
+
+        int valueStart = separator + 1;
+        int valueEnd = end;
+        while (valueStart < valueEnd && isWhitespace(chunk.get(valueStart))) valueStart++;
+        while (valueEnd > valueStart && isWhitespace(chunk.get(valueEnd - 1))) valueEnd--;
+
+        int length = valueEnd - valueStart;
+        byte[] bytes = length <= valueBuffer.length ? valueBuffer : new byte[length];
+        chunk.get(valueStart, bytes, 0, length);
+        values[field] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isWhitespace(byte b) {
+
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f';
+    }
+
+    private static int hash(byte[] bytes) {
+
+        int hash = 0x811c9dc5;
+        for (byte b : bytes) {
+            hash = (hash ^ (b & 0xff)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    /**
+     * An open addressing table of the UTF-8 encoded identifiers and aliases of the schema.
+     */
+    private static final class KeyTable {
+
+        private final ConfigFieldInformation[] fields;
+        private final byte[][] keys;
+        private final int[] hashes;
+        private final int[] indices;
+        private final int mask;
+
+        private KeyTable(ConfigSchema<?> schema) {
+            fields = schema.keyIndex().withPrefix("").toArray(new ConfigFieldInformation[0]);
+            int count = 0;
+            for (ConfigFieldInformation field : fields) count += 1 + field.aliases().length;
+            int capacity = Integer.highestOneBit(Math.max(2, count * 2 - 1)) << 1;
+            keys = new byte[capacity][];
+            hashes = new int[capacity];
+            indices = new int[capacity];
+            mask = capacity - 1;
+            for (int i = 0; i < fields.length; i++) {
+                put(fields[i].identifier(), i);
+                for (String alias : fields[i].aliases()) put(alias, i);
+            }
+        }
+
+        private void put(String key, int index) {
+
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            int hash = hash(bytes);
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (hash == hashes[slot] && Arrays.equals(bytes, keys[slot])) return;
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = bytes;
+            hashes[slot] = hash;
+            indices[slot] = index;
+        }
+
+        private int find(ByteBuffer buffer, int start, int end) {
+
+            int hash = 0x811c9dc5;
+            for (int i = start; i < end; i++) {
+                hash = (hash ^ (buffer.get(i) & 0xff)) * 0x01000193;
+            }
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && matches(keys[slot], buffer, start, end)) return indices[slot];
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer buffer, int start, int end) {
+
+            if (key.length != end - start) return false;
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buffer.get(start + i)) return false;
+            }
+            return true;
+        }
+    }
+}
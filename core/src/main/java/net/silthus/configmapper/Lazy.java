@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.util.function.Supplier;
+
+/**
+ * A thread safe supplier that computes its value once on the first call of {@link #get()}
+ * and then returns the cached value for all subsequent calls.
+ *
+ * @param <T> the type of the value
+ */
+final class Lazy<T> implements Supplier<T> {
+
+    static <T> Lazy<T> of(Supplier<T> supplier) {
+
+        return new Lazy<>(supplier);
+    }
+
+    static <T> Lazy<T> value(T value) {
+
+        Lazy<T> lazy = new Lazy<>(null);
+        lazy.value = value;
+        lazy.resolved = true;
+        return lazy;
+    }
+
+    private Supplier<T> supplier;
+    private T value;
+    private volatile boolean resolved;
+
+    private Lazy(Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public T get() {
+
+        if (!resolved) {
+            synchronized (this) {
+                if (!resolved) {
+                    value = supplier.get();
+                    resolved = true;
+                    supplier = null;
+                }
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A config that stores the raw values of its config fields and converts them on first access.
+ * <p>Loading a lazy config only resolves the keys and checks that all required values are present.
+ * Every value is converted, validated and interned with the settings of the {@link ConfigSchema} the first
+ * time it is read and the converted value is cached in its slot. This makes loading configs with many
+ * rarely read config fields almost free.
+ * <p>Conversion errors and constraint violations are thrown by the first read of the value
+ * or by {@link #validate()}, which converts all remaining values at once.
+ * <p>A lazy config is safe to share between threads. Concurrent first reads may convert a value more
+ * than once, but only one result is cached and all threads see the same converted value.
+ *
+ * @param <TConfig> the type of the config
+ * @see ConfigMap#lazy()
+ */
+public final class LazyConfig<TConfig> {
+
+    private static final Object UNCONVERTED = new Object();
+    private static final Object NULL = new Object();
+
+    /**
+     * Creates a lazy config from the raw values of its config fields.
+     *
+     * @param schema the schema of the config
+     * @param rawValues the raw values mapped to their config fields, e.g. from {@link ConfigUtil#loadRawValues(ConfigSchema, List, List)}
+     * @param <TConfig> the type of the config
+     * @return the lazy config
+     */
+    static <TConfig> LazyConfig<TConfig> of(ConfigSchema<TConfig> schema, Map<ConfigFieldInformation, Object> rawValues) {
+
+        List<ConfigFieldInformation> fields = schema.keyIndex().withPrefix("");
+        Object[] raw = new Object[fields.size()];
+        AtomicReferenceArray<Object> values = new AtomicReferenceArray<>(fields.size());
+        for (Map.Entry<ConfigFieldInformation, Object> entry : rawValues.entrySet()) {
+            int slot = schema.slot(entry.getKey());
+            raw[slot] = entry.getValue();
+            values.set(slot, UNCONVERTED);
+        }
+        return new LazyConfig<>(schema, fields, raw, values);
+    }
+
+    private final ConfigSchema<TConfig> schema;
+    private final List<ConfigFieldInformation> fields;
+    private final Object[] raw;
+    private final AtomicReferenceArray<Object> values;
+
+    private LazyConfig(ConfigSchema<TConfig> schema, List<ConfigFieldInformation> fields, Object[] raw, AtomicReferenceArray<Object> values) {
+        this.schema = schema;
+        this.fields = fields;
+        this.raw = raw;
+        this.values = values;
+    }
+
+    /**
+     * @return the schema of the config
+     */
+    public ConfigSchema<TConfig> schema() {
+
+        return schema;
+    }
+
+    /**
+     * Gets the value of the config field with the given key and converts it on first access.
+     *
+     * @param key the identifier or alias of the config field
+     * @param <TValue> the type of the value
+     * @return the converted value or a copy of the default value of the config field if no value was loaded
+     * @throws ConfigurationException if the config has no field with the given key,
+     *                                or if the value cannot be converted or violates its constraints
+     */
+    public <TValue> TValue get(@NonNull String key) throws ConfigurationException {
+
+        return get(findField(key));
+    }
+
+    /**
+     * Gets the value of the given config field and converts it on first access.
+     *
+     * @param field the config field of the schema
+     * @param <TValue> the type of the value
+     * @return the converted value or a copy of the default value of the config field if no value was loaded
+     * @throws ConfigurationException if the config field is not part of the schema,
+     *                                or if the value cannot be converted or violates its constraints
+     */
+    @SuppressWarnings("unchecked")
+    public <TValue> TValue get(@NonNull ConfigFieldInformation field) throws ConfigurationException {
+
+        int slot = schema.slot(field);
+        if (slot < 0) {
+            throw new ConfigurationException("The config field " + field.identifier() + " is not part of the config " + schema.configClass().getSimpleName());
+        }
+
+        Object value = values.get(slot);
+        if (value == null) return (TValue) ConfigDefaults.defaultValue(field);
+        if (value == UNCONVERTED) {
+            List<String> violations = new ArrayList<>(1);
+            Object converted = convert(slot, violations);
+            if (!violations.isEmpty()) {
+                throw new ConfigurationException("Config has an invalid value: " + violations.get(0));
+            }
+            values.compareAndSet(slot, UNCONVERTED, converted);
+            value = values.get(slot);
+        }
+        return value == NULL ? null : (TValue) value;
+    }
+
+    /**
+     * @param key the identifier or alias of the config field
+     * @return true if a value was loaded for the config field
+     * @throws ConfigurationException if the config has no field with the given key
+     */
+    public boolean isSet(@NonNull String key) throws ConfigurationException {
+
+        return values.get(schema.slot(findField(key))) != null;
+    }
+
+    /**
+     * @param key the identifier or alias of the config field
+     * @return true if the value of the config field was already converted
+     * @throws ConfigurationException if the config has no field with the given key
+     */
+    public boolean isConverted(@NonNull String key) throws ConfigurationException {
+
+        Object value = values.get(schema.slot(findField(key)));
+        return value != null && value != UNCONVERTED;
+    }
+
+    /**
+     * Converts all values that were not read yet and reports every conversion error and constraint violation at once.
+     *
+     * @return this lazy config
+     * @throws ConfigurationException if one or more values cannot be converted or violate their constraints
+     */
+    public LazyConfig<TConfig> validate() throws ConfigurationException {
+
+        List<String> violations = new ArrayList<>();
+        for (int slot = 0; slot < raw.length; slot++) {
+            if (values.get(slot) != UNCONVERTED) continue;
+            int before = violations.size();
+            Object converted;
+            try {
+                converted = convert(slot, violations);
+            } catch (ConfigurationException e) {
+                violations.add(e.getMessage());
+                continue;
+            }
+            if (violations.size() == before) {
+                values.compareAndSet(slot, UNCONVERTED, converted);
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            throw new ConfigurationException("Config has " + violations.size() + " invalid values: " + String.join(", ", violations));
+        }
+        return this;
+    }
+
+    /**
+     * Converts all remaining values and creates the config object from them.
+     * <p>Mutable values, like arrays, lists, sets and maps, are copied into every created config object,
+     * so they are never shared with other created objects or with the values returned by {@link #get(String)}.
+     *
+     * @return the new config object
+     * @throws ConfigurationException if a value is invalid or the config object cannot be created
+     */
+    public TConfig create() throws ConfigurationException {
+
+        validate();
+        Map<ConfigFieldInformation, Object> converted = new HashMap<>();
+        for (int slot = 0; slot < raw.length; slot++) {
+            Object value = values.get(slot);
+            if (value == NULL) {
+                converted.put(fields.get(slot), null);
+            } else if (value != null) {
+                converted.put(fields.get(slot), ConfigDefaults.copy(fields.get(slot), value));
+            }
+        }
+        return schema.newInstance(converted);
+    }
+
+    private Object convert(int slot, List<String> violations) throws ConfigurationException {
+
+        Object value = ConfigUtil.convertValue(schema, fields.get(slot), raw[slot], violations);
+        return value == null ? NULL : value;
+    }
+
+    private ConfigFieldInformation findField(String key) throws ConfigurationException {
+
+        ConfigFieldInformation field = schema.findField(key);
+        if (field == null) {
+            throw new ConfigurationException("The config " + schema.configClass().getSimpleName() + " has no config field " + key);
+        }
+        return field;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of longs that is backed by a {@code long[]} instead of boxed longs.
+ * <p>Config fields of type {@code List<Long>} are filled with this list if they are annotated with
+ * {@code @ConfigOption(compact = true)}. Use {@link #getLong(int)} to read the values without boxing.
+ */
+public final class LongList extends AbstractList<Long> implements RandomAccess {
+
+    public static LongList of(@NonNull long... values) {
+
+        return new LongList(values.clone());
+    }
+
+    static LongList wrap(long[] values) {
+
+        return new LongList(values);
+    }
+
+    private final long[] values;
+
+    private LongList(long[] values) {
+        this.values = values;
+    }
+
+    public long getLong(int index) {
+
+        return values[index];
+    }
+
+    public long[] toLongArray() {
+
+        return values.clone();
+    }
+
+    @Override
+    public Long get(int index) {
+
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+
+        return values.length;
+    }
+
+    @Override
+    public String toString() {
+
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A {@link ConfigSource} reading from a flat map of dotted keys or from nested maps.
+ * <p>If the schema normalizes keys and no key matches a config field exactly, the keys of the map are
+ * scanned for a key that resolves to the config field.
+ */
+final class MapConfigSource implements ConfigSource {
+
+    private final Map<String, ?> values;
+    private final int priority;
+
+    MapConfigSource(Map<String, ?> values, int priority) {
+        this.values = values;
+        this.priority = priority;
+    }
+
+    @Override
+    public Optional<Object> get(@NonNull String key) {
+
+        Object value = values.get(key);
+        if (value != null || values.containsKey(key)) return Optional.ofNullable(value);
+
+        Map<?, ?> section = values;
+        int start = 0;
+        int end;
+        while ((end = key.indexOf('.', start)) >= 0) {
+            Object child = section.get(key.substring(start, end));
+            if (!(child instanceof Map)) return Optional.empty();
+            section = (Map<?, ?>) child;
+            start = end + 1;
+        }
+        return start == 0 ? Optional.empty() : Optional.ofNullable(section.get(key.substring(start)));
+    }
+
+    @Override
+    public Optional<Object> get(@NonNull ConfigSchema<?> schema, @NonNull ConfigFieldInformation field) {
+
+        Optional<Object> value = ConfigSource.super.get(schema, field);
+        if (value.isPresent() || !schema.normalizeKeys()) return value;
+        return find(schema, field, values, "");
+    }
+
+    private static Optional<Object> find(ConfigSchema<?> schema, ConfigFieldInformation field, Map<?, ?> section, String prefix) {
+
+        for (Map.Entry<?, ?> entry : section.entrySet()) {
+            String key = prefix + entry.getKey();
+            if (schema.findField(key) == field) return Optional.ofNullable(entry.getValue());
+            if (entry.getValue() instanceof Map) {
+                Optional<Object> value = find(schema, field, (Map<?, ?>) entry.getValue(), key + ".");
+                if (value.isPresent()) return value;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int priority() {
+
+        return priority;
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Maps the rows of large delimiter separated files, like CSV or TSV files, onto the positional
+ * config fields of a config class and streams the created config objects.
+ * <p>The columns of every row are mapped in order onto the fields with the matching {@link ConfigOption#position()}.
+ * Columns without a matching field are ignored. Quoted columns are handled like in {@link ReflectionUtil#toArray(Class, String)}:
+ * the content between the first pair of quotes is used as value and may contain the delimiter.
+ * Quoted values cannot span multiple lines. All values are trimmed and empty lines are skipped.
+ * <p>Rows are read lazily and every reader reuses a single line and token buffer. Files can additionally be
+ * mapped into memory and split into line ranges that are mapped in parallel, see {@link #stream(Path, boolean)}.
+ * <p>Rows that cannot be mapped fail the stream with a {@link ConfigurationException} that contains the row number.
+ *
+ * @param <TConfig> the type of the config
+ */
+public final class PositionalRecordReader<TConfig> {
+
+    /**
+     * The delimiter of comma separated files.
+     */
+    public static final char CSV = ',';
+    /**
+     * The delimiter of tab separated files.
+     */
+    public static final char TSV = '\t';
+
+    private static final int MIN_SPLIT_SIZE = 64 * 1024;
+
+    /**
+     * @param configClass the config class with positional config fields
+     * @param <TConfig> the type of the config
+     * @return a reader for comma separated files that uses the cached schema of the config class
+     * @throws ConfigurationException if the config class has no positional config fields
+     */
+    public static <TConfig> PositionalRecordReader<TConfig> of(@NonNull Class<TConfig> configClass) throws ConfigurationException {
+
+        return of(ConfigSchema.of(configClass));
+    }
+
+    /**
+     * @param schema the schema with positional config fields
+     * @param <TConfig> the type of the config
+     * @return a reader for comma separated files
+     * @throws ConfigurationException if the schema has no positional config fields
+     */
+    public static <TConfig> PositionalRecordReader<TConfig> of(@NonNull ConfigSchema<TConfig> schema) throws ConfigurationException {
+
+        int columns = 0;
+        for (ConfigFieldInformation field : schema.configFields().values()) {
+            columns = Math.max(columns, field.position() + 1);
+        }
+        if (columns == 0) {
+            throw new ConfigurationException("The config " + schema.configClass().getSimpleName() + " has no positional config fields.");
+        }
+        ConfigFieldInformation[] slots = new ConfigFieldInformation[columns];
+        for (ConfigFieldInformation field : schema.configFields().values()) {
+            if (field.position() >= 0) slots[field.position()] = field;
+        }
+        return new PositionalRecordReader<>(schema, slots, CSV, false);
+    }
+
+    private final ConfigSchema<TConfig> schema;
+    private final ConfigFieldInformation[] slots;
+    private final char delimiter;
+    private final boolean skipHeader;
+
+    private PositionalRecordReader(ConfigSchema<TConfig> schema, ConfigFieldInformation[] slots, char delimiter, boolean skipHeader) {
+        this.schema = schema;
+        this.slots = slots;
+        this.delimiter = delimiter;
+        this.skipHeader = skipHeader;
+    }
+
+    /**
+     * @param delimiter the delimiter of the columns, e.g. {@link #CSV} or {@link #TSV}
+     * @return a reader that splits the columns at the given delimiter
+     */
+    public PositionalRecordReader<TConfig> delimiter(char delimiter) {
+
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("The delimiter must not be a quote or line break.");
+        }
+        return new PositionalRecordReader<>(schema, slots, delimiter, skipHeader);
+    }
+
+    /**
+     * @param skipHeader true if the first line of the file contains the column names and should be skipped
+     * @return a reader that skips or maps the first line
+     */
+    public PositionalRecordReader<TConfig> skipHeader(boolean skipHeader) {
+
+        return new PositionalRecordReader<>(schema, slots, delimiter, skipHeader);
+    }
+
+    /**
+     * Lazily maps the rows read from the given reader.
+     * <p>Closing the stream closes the reader.
+     *
+     * @param reader the reader of the delimiter separated rows
+     * @return a sequential stream of the mapped config objects
+     */
+    public Stream<TConfig> stream(@NonNull Reader reader) {
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(reader), Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Lazily maps the rows read from the given reader.
+     *
+     * @param reader the reader of the delimiter separated rows
+     * @return an iterator of the mapped config objects
+     */
+    public Iterator<TConfig> iterator(@NonNull Reader reader) {
+
+        return new RowIterator(reader instanceof BufferedReader ? reader : new BufferedReader(reader));
+    }
+
+    /**
+     * Maps the rows of the given UTF-8 encoded file.
+     * <p>The file is mapped into memory. A parallel stream splits the file into line ranges that are mapped
+     * independently. The row number of an invalid row is only counted when the error is reported.
+     * Files larger than 2 GB are read sequentially.
+     *
+     * @param file the file with the delimiter separated rows
+     * @param parallel true if the rows should be mapped in parallel
+     * @return a stream of the mapped config objects in the order of the file
+     * @throws ConfigurationException if the file cannot be read
+     */
+    public Stream<TConfig> stream(@NonNull Path file, boolean parallel) throws ConfigurationException {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return stream(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int start = skipHeader ? nextLine(buffer, 0, (int) size) : 0;
+            return StreamSupport.stream(new LineRangeSpliterator(buffer, start, (int) size), parallel);
+        } catch (IOException e) {
+            throw new ConfigurationException("Unable to read the file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    private TConfig map(String[] columns, int count) {
+
+        List<KeyValuePair> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (slots[i] != null && !columns[i].isEmpty()) {
+                values.add(KeyValuePair.of(slots[i].identifier(), columns[i]));
+            }
+        }
+        return schema.newInstance(ConfigUtil.loadConfigValues(schema, values));
+    }
+
+    private static ConfigurationException rowError(long row, RuntimeException e) {
+
+        return new ConfigurationException("Unable to map row " + row + ": " + e.getMessage(), e);
+    }
+
+    /**
+     * Splits the line into its trimmed columns.
+     *
+     * @return the number of columns
+     */
+    private int tokenize(CharSequence line, StringBuilder token, String[] columns) {
+
+        int count = 0;
+        int length = line.length();
+        int position = 0;
+        while (position <= length && count < columns.length) {
+            int start = position;
+            while (start < length && Character.isWhitespace(line.charAt(start)) && line.charAt(start) != delimiter) start++;
+
+            int end = start;
+            while (end < length && line.charAt(end) != delimiter) end++;
+            int valueStart = start;
+            int valueEnd = end;
+            if (start < length && line.charAt(start) == '"') {
+                int closingQuote = start + 1;
+                while (closingQuote < length && line.charAt(closingQuote) != '"') closingQuote++;
+                if (closingQuote < length) {
+                    valueStart = start + 1;
+                    valueEnd = closingQuote;
+                    end = closingQuote;
+                    while (end < length && line.charAt(end) != delimiter) end++;
+                }
+            }
+            while (valueEnd > valueStart && Character.isWhitespace(line.charAt(valueEnd - 1))) valueEnd--;
+            while (valueStart < valueEnd && Character.isWhitespace(line.charAt(valueStart))) valueStart++;
+
+            token.setLength(0);
+            token.append(line, valueStart, valueEnd);
+            columns[count++] = token.toString();
+            position = end + 1;
+        }
+        return count;
+    }
+
+    private static int nextLine(ByteBuffer buffer, int position, int end) {
+
+        while (position < end && buffer.get(position) != '\n') position++;
+        return Math.min(position + 1, end);
+    }
+
+    private final class RowIterator implements Iterator<TConfig> {
+
+        private final Reader reader;
+        private final StringBuilder line = new StringBuilder();
+        private final StringBuilder token = new StringBuilder();
+        private final String[] columns = new String[slots.length];
+        private long row = 0;
+        private TConfig next;
+
+        private RowIterator(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            while (next == null) {
+                if (!readLine()) return false;
+                row++;
+                if (row == 1 && skipHeader) continue;
+                if (isBlank(line)) continue;
+                try {
+                    next = map(columns, tokenize(line, token, columns));
+                } catch (RuntimeException e) {
+                    throw rowError(row, e);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public TConfig next() {
+
+            if (!hasNext()) throw new NoSuchElementException();
+            TConfig result = next;
+            next = null;
+            return result;
+        }
+
+        private boolean readLine() {
+
+            line.setLength(0);
+            try {
+                int c;
+                while ((c = reader.read()) >= 0) {
+                    if (c == '\n') return true;
+                    if (c != '\r') line.append((char) c);
+                }
+                return line.length() > 0;
+            } catch (IOException e) {
+                throw new ConfigurationException("Unable to read row " + (row + 1) + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private final class LineRangeSpliterator implements Spliterator<TConfig> {
+
+        private final ByteBuffer buffer;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final StringBuilder token = new StringBuilder();
+        private final String[] columns = new String[slots.length];
+        private CharBuffer line = CharBuffer.allocate(256);
+        private int position;
+        private int end;
+
+        private LineRangeSpliterator(ByteBuffer buffer, int position, int end) {
+            this.buffer = buffer;
+            this.position = position;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super TConfig> action) {
+
+            while (position < end) {
+                int lineStart = position;
+                int lineEnd = lineStart;
+                while (lineEnd < end && buffer.get(lineEnd) != '\n') lineEnd++;
+                position = lineEnd + 1;
+                if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') lineEnd--;
+
+                decode(lineStart, lineEnd);
+                if (isBlank(line)) continue;
+                TConfig config;
+                try {
+                    config = map(columns, tokenize(line, token, columns));
+                } catch (RuntimeException e) {
+                    throw rowError(rowAt(lineStart), e);
+                }
+                action.accept(config);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<TConfig> trySplit() {
+
+            if (end - position < MIN_SPLIT_SIZE) return null;
+            int middle = nextLine(buffer, position + (end - position) / 2, end);
+            if (middle >= end) return null;
+            LineRangeSpliterator prefix = new LineRangeSpliterator(buffer, position, middle);
+            position = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+
+            return Math.max(0, end - position) / 32;
+        }
+
+        @Override
+        public int characteristics() {
+
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+
+        private void decode(int start, int end) {
+
+            ByteBuffer bytes = buffer.duplicate();
+            bytes.limit(end).position(start);
+            decoder.reset();
+            line.clear();
+            while (decoder.decode(bytes, line, true).isOverflow()) {
+                CharBuffer larger = CharBuffer.allocate(line.capacity() * 2);
+                line.flip();
+                larger.put(line);
+                line = larger;
+            }
+            decoder.flush(line);
+            line.flip();
+        }
+
+        // counts the lines in front of the invalid row only when an error is reported
+        private long rowAt(int offset) {
+
+            long row = 1;
+            for (int i = 0; i < offset; i++) {
+                if (buffer.get(i) == '\n') row++;
+            }
+            return row;
+        }
+    }
+
+    private static boolean isBlank(CharSequence line) {
+
+        for (int i = 0; i < line.length(); i++) {
+            if (!Character.isWhitespace(line.charAt(i))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.Value;
+import lombok.experimental.Accessors;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of prewarming the config schemas with {@link SchemaPrewarmer#prewarm()}.
+ */
+@Value
+@Accessors(fluent = true)
+public class PrewarmResult {
+
+    /**
+     * The config classes whose schemas were built, in the order they were found.
+     */
+    List<Class<?>> classes;
+    /**
+     * The errors of all classes that could not be loaded or scanned by the name of the class.
+     */
+    Map<String, ConfigurationException> failures;
+    /**
+     * The time it took to find the config classes on the classpath.
+     */
+    Duration scanTime;
+    /**
+     * The time it took to find the config classes and to build all schemas.
+     */
+    Duration elapsed;
+
+    /**
+     * @return true if the schemas of all config classes were built without errors
+     */
+    public boolean successful() {
+
+        return failures.isEmpty();
+    }
+}
@@ -43,13 +43,20 @@ public final class ReflectionUtil {
             if (fieldType.isEnum())
                 return (TValue) fromStringToEnum((Class<? extends Enum>) fieldType, (String) value);
             return (TValue) fromString(fieldType, (String) value);
-        } else if (value.getClass().isPrimitive() || fieldType.isPrimitive()) {
+        } else if (value.getClass().isPrimitive() || fieldType.isPrimitive()
+                || (!fieldType.isInstance(value) && (fieldType == String.class || isBoxedPrimitive(fieldType)))) {
             return (TValue) fromString(fieldType, "" + value);
         }
 
         return (TValue) value;
     }
 
+    private static boolean isBoxedPrimitive(Class<?> type) {
+
+        return type == Boolean.class || type == Byte.class || type == Short.class || type == Integer.class
+                || type == Long.class || type == Float.class || type == Double.class;
+    }
+
     public static Object fromString(Class<?> fieldType, String value) {
 
         if (fieldType.isArray()) {
@@ -71,7 +78,7 @@ public final class ReflectionUtil {
 
         Matcher matcher = QUOTED_STRING_ARRAY.matcher(input);
 
-        while (matcher.matches()) {
+        while (!isQuoted(input) && matcher.matches()) {
             String quoted = matcher.group("quoted");
             String value = matcher.group("value");
             input = matcher.group("rest");
@@ -87,7 +94,8 @@ public final class ReflectionUtil {
                 break;
             }
         }
-        strings.add(input);
+        String last = input.trim();
+        strings.add(isQuoted(last) ? last.substring(1, last.length() - 1) : input);
 
         String[] result = strings.toArray(new String[0]);
         Object array = Array.newInstance(arrayType, result.length);
@@ -98,6 +106,42 @@ public final class ReflectionUtil {
         return array;
     }
 
+    /**
+     * Serializes the given array into the comma separated format that is read by {@link #toArray(Class, String)}.
+     * <p>Elements that contain a comma are quoted.
+     *
+     * @param array the array that should be serialized
+     * @return the comma separated elements of the array
+     * @throws ConfigurationException if an element contains a comma and a quote or starts with a quote,
+     *                                because it cannot be read back by the parser
+     */
+    public static String fromArray(Object array) throws ConfigurationException {
+
+        StringBuilder builder = new StringBuilder();
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) builder.append(',');
+            Object element = Array.get(array, i);
+            String value = element instanceof Enum ? ((Enum<?>) element).name() : String.valueOf(element);
+            if (value.indexOf(',') >= 0 || value.startsWith("\"")) {
+                if (value.indexOf('"') >= 0) {
+                    throw new ConfigurationException("Unable to serialize the array element " + value
+                            + ". Elements that contain a comma cannot contain quotes.");
+                }
+                builder.append('"').append(value).append('"');
+            } else {
+                builder.append(value);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isQuoted(String input) {
+
+        String value = input.trim();
+        return value.length() >= 2 && value.charAt(0) == '"' && value.indexOf('"', 1) == value.length() - 1;
+    }
+
     /**
      * Recursively searches the given class and all of its super classes for a field with the given name.
      *
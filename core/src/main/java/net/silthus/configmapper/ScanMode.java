@@ -0,0 +1,38 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+/**
+ * Controls how the default values of config fields are captured while scanning a config class.
+ *
+ * @see ConfigUtil#getConfigFields(Class, FieldNameFormatter, ScanMode)
+ */
+public enum ScanMode {
+    /**
+     * Creates an instance of the config class and of every nested config object that has no default
+     * instance while scanning and reads all default values right away.
+     * <p>This is the default mode.
+     */
+    EAGER,
+    /**
+     * Does not create any instance while scanning.
+     * <p>Default values are read on the first call of {@link ConfigFieldInformation#defaultValue()}
+     * from a single prototype of the config class that is shared by all fields of the scan.
+     * Nested config objects are only instantiated if the prototype does not provide them.
+     */
+    LAZY
+}
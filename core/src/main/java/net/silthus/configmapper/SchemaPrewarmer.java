@@ -0,0 +1,201 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+import lombok.extern.java.Log;
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Builds the {@link ConfigSchema} of every config class found on the classpath, e.g. while starting an application.
+ * <p>The classpath is scanned for classes that use {@link ConfigOption} on the class, its fields or its methods
+ * and for classes with a {@link ConfigConstructor}. The schemas of all found classes are then built in parallel,
+ * including their key tables and constructor bindings, and stored in the shared {@link ConfigSchema#of(Class)} cache.
+ * This moves the cost of scanning the config classes from the first config that is loaded to the start of the application.
+ * <p>Abstract classes and polymorphic config types are skipped, because they have no schema of their own.
+ * Classes that cannot be loaded or scanned are reported in the {@link PrewarmResult} instead of failing the prewarm.
+ *
+ * <pre>{@code
+ * PrewarmResult result = SchemaPrewarmer.forPackages("my.plugin.config").prewarm();
+ * }</pre>
+ */
+@Log(topic = "configmapper")
+public final class SchemaPrewarmer {
+
+    /**
+     * Scans the given packages and their sub packages with the context and static class loaders.
+     *
+     * @param packages the names of the packages, e.g. {@code my.plugin.config}
+     * @return the prewarmer of the packages
+     */
+    public static SchemaPrewarmer forPackages(@NonNull String... packages) {
+
+        return forPackages(ClasspathHelper.classLoaders(), packages);
+    }
+
+    /**
+     * Scans the given packages and their sub packages with the given class loaders.
+     *
+     * @param classLoaders the class loaders used to find and load the classes
+     * @param packages the names of the packages, e.g. {@code my.plugin.config}
+     * @return the prewarmer of the packages
+     */
+    public static SchemaPrewarmer forPackages(@NonNull ClassLoader[] classLoaders, @NonNull String... packages) {
+
+        ConfigurationBuilder configuration = new ConfigurationBuilder().addClassLoaders(classLoaders);
+        FilterBuilder filter = new FilterBuilder();
+        for (String name : packages) {
+            configuration.forPackage(name, classLoaders);
+            filter.includePackage(name);
+        }
+        return new SchemaPrewarmer(configuration.filterInputsBy(filter), classLoaders);
+    }
+
+    /**
+     * Scans all classes that are visible to the given class loaders.
+     *
+     * @param classLoaders the class loaders used to find and load the classes
+     * @return the prewarmer of the class loaders
+     */
+    public static SchemaPrewarmer forClassLoaders(@NonNull ClassLoader... classLoaders) {
+
+        return new SchemaPrewarmer(new ConfigurationBuilder()
+                .addUrls(ClasspathHelper.forClassLoader(classLoaders))
+                .addClassLoaders(classLoaders), classLoaders);
+    }
+
+    private final ConfigurationBuilder configuration;
+    private final ClassLoader[] classLoaders;
+    private Executor executor = ForkJoinPool.commonPool();
+
+    private SchemaPrewarmer(ConfigurationBuilder configuration, ClassLoader[] classLoaders) {
+        this.configuration = configuration;
+        this.classLoaders = classLoaders;
+    }
+
+    /**
+     * Sets the executor that builds the schemas. The common fork join pool is used by default.
+     *
+     * @param executor the executor that builds the schemas
+     * @return this prewarmer
+     */
+    public SchemaPrewarmer executor(@NonNull Executor executor) {
+
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Scans the classpath and builds the schemas of all found config classes in parallel.
+     * <p>The method blocks until all schemas are built.
+     *
+     * @return the result with the prewarmed classes, the failures and the time it took
+     */
+    public PrewarmResult prewarm() {
+
+        long start = System.nanoTime();
+        Set<String> classNames = scan();
+        Duration scanTime = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<String, ConfigurationException> failures = new TreeMap<>();
+        List<Class<?>> classes = new ArrayList<>();
+        for (String className : classNames) {
+            try {
+                Class<?> configClass = loadClass(className);
+                if (isPrewarmable(configClass)) classes.add(configClass);
+            } catch (ClassNotFoundException | LinkageError e) {
+                failures.put(className, new ConfigurationException("Unable to load the config class " + className + ": " + e, e));
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(classes.size());
+        for (Class<?> configClass : classes) {
+            futures.add(CompletableFuture.runAsync(() -> ConfigSchema.of(configClass).warm(), executor));
+        }
+
+        List<Class<?>> prewarmed = new ArrayList<>(classes.size());
+        for (int i = 0; i < classes.size(); i++) {
+            try {
+                futures.get(i).join();
+                prewarmed.add(classes.get(i));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                failures.put(classes.get(i).getName(), cause instanceof ConfigurationException
+                        ? (ConfigurationException) cause
+                        : new ConfigurationException("Unable to build the schema of " + classes.get(i).getName() + ": " + cause.getMessage(), cause));
+            }
+        }
+
+        PrewarmResult result = new PrewarmResult(Collections.unmodifiableList(prewarmed), Collections.unmodifiableMap(failures),
+                scanTime, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Prewarmed " + prewarmed.size() + " config schemas in " + result.elapsed().toMillis() + "ms"
+                + (failures.isEmpty() ? "" : ", " + failures.size() + " config classes failed: " + String.join(", ", failures.keySet())));
+        return result;
+    }
+
+    private Set<String> scan() {
+
+        Reflections reflections = new Reflections(configuration
+                .setScanners(Scanners.TypesAnnotated, Scanners.FieldsAnnotated, Scanners.MethodsAnnotated, Scanners.ConstructorsAnnotated)
+                .setParallel(true));
+
+        Set<String> classNames = new LinkedHashSet<>(reflections.get(Scanners.TypesAnnotated.with(ConfigOption.class)));
+        for (String field : reflections.get(Scanners.FieldsAnnotated.with(ConfigOption.class))) {
+            classNames.add(field.substring(0, field.lastIndexOf('.')));
+        }
+        for (String method : reflections.get(Scanners.MethodsAnnotated.with(ConfigOption.class))) {
+            String name = method.substring(0, method.indexOf('('));
+            classNames.add(name.substring(0, name.lastIndexOf('.')));
+        }
+        for (String constructor : reflections.get(Scanners.ConstructorsAnnotated.with(ConfigConstructor.class))) {
+            String name = constructor.substring(0, constructor.indexOf('('));
+            classNames.add(name.substring(0, name.lastIndexOf('.')));
+        }
+        return classNames;
+    }
+
+    private Class<?> loadClass(String className) throws ClassNotFoundException {
+
+        ClassNotFoundException notFound = null;
+        for (ClassLoader classLoader : classLoaders) {
+            try {
+                return Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                notFound = e;
+            }
+        }
+        throw notFound != null ? notFound : new ClassNotFoundException(className);
+    }
+
+    private static boolean isPrewarmable(Class<?> type) {
+
+        if (type.isAnnotation() || type.isEnum() || SubtypeTable.isPolymorphic(type)) return false;
+        return type.isInterface() || !Modifier.isAbstract(type.getModifiers());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * The dispatch table of a {@link ConfigSubtypes} config type, mapping the names of its subtypes to their schemas.
+ * <p>The table is built once per config type and resolves the subtype of an entry with a single hash lookup.
+ * The schemas of the subtypes are taken from the shared {@link ConfigSchema#of(Class)} cache on first use.
+ */
+final class SubtypeTable {
+
+    private static final MethodHandle GET_PERMITTED_SUBCLASSES = findPermittedSubclasses();
+
+    private static final ClassCache<Optional<SubtypeTable>> TABLES = ClassCache.of(type -> {
+        ConfigSubtypes subtypes = type.getAnnotation(ConfigSubtypes.class);
+        if (subtypes != null) {
+            Class<?>[] classes = subtypes.value().length > 0 ? subtypes.value() : getPermittedSubclasses(type);
+            return Optional.of(new SubtypeTable(type, subtypes.key(), classes));
+        }
+        Class<?>[] permitted = getPermittedSubclasses(type);
+        if (permitted.length > 0 && (type.isInterface() || Modifier.isAbstract(type.getModifiers()))) {
+            return Optional.of(new SubtypeTable(type, "type", permitted));
+        }
+        return Optional.empty();
+    });
+
+    private static final ClassCache<Optional<SubtypeTable>> PARENT_TABLES = ClassCache.of(type -> {
+        Deque<Class<?>> types = new ArrayDeque<>();
+        types.add(type);
+        while (!types.isEmpty()) {
+            Class<?> current = types.poll();
+            if (current != type) {
+                Optional<SubtypeTable> table = TABLES.get(current);
+                if (table.isPresent() && table.get().names.containsKey(type)) return table;
+            }
+            if (current.getSuperclass() != null) types.add(current.getSuperclass());
+            types.addAll(Arrays.asList(current.getInterfaces()));
+        }
+        return Optional.empty();
+    });
+
+    /**
+     * @param type the config type
+     * @return the dispatch table if the type is a polymorphic config type
+     */
+    static Optional<SubtypeTable> of(Class<?> type) {
+
+        return TABLES.get(type);
+    }
+
+    /**
+     * @param subtype the subtype of a polymorphic config type
+     * @return the dispatch table of the polymorphic base type of the subtype
+     */
+    static Optional<SubtypeTable> ofSubtype(Class<?> subtype) {
+
+        return PARENT_TABLES.get(subtype);
+    }
+
+    /**
+     * @param type the config type
+     * @return true if the type selects its implementation with a discriminator key
+     */
+    static boolean isPolymorphic(Class<?> type) {
+
+        return TABLES.get(type).isPresent();
+    }
+
+    private final Class<?> baseType;
+    private final String key;
+    private final Map<String, Lazy<ConfigSchema<?>>> schemas = new HashMap<>();
+    private final Map<Class<?>, String> names = new HashMap<>();
+
+    private SubtypeTable(Class<?> baseType, String key, Class<?>[] subtypes) {
+        this.baseType = baseType;
+        this.key = key;
+        for (Class<?> subtype : subtypes) {
+            if (!baseType.isAssignableFrom(subtype)) {
+                throw new ConfigurationException("The config subtype " + subtype.getSimpleName() + " does not extend " + baseType.getSimpleName() + ".");
+            }
+            String name = getName(subtype);
+            if (schemas.putIfAbsent(name, Lazy.of(() -> ConfigSchema.of(subtype))) != null) {
+                throw new ConfigurationException("The config subtypes of " + baseType.getSimpleName() + " use the name \"" + name + "\" more than once.");
+            }
+            names.put(subtype, name);
+        }
+    }
+
+    /**
+     * @return the key that holds the name of the subtype
+     */
+    String key() {
+
+        return key;
+    }
+
+    /**
+     * @param subtype the subtype
+     * @return the name of the subtype used as value of the discriminator key
+     */
+    String nameOf(Class<?> subtype) {
+
+        return names.get(subtype);
+    }
+
+    /**
+     * @return the subtypes by their name, sorted by the name
+     */
+    SortedMap<String, Class<?>> subtypes() {
+
+        SortedMap<String, Class<?>> subtypes = new TreeMap<>();
+        names.forEach((subtype, name) -> subtypes.put(name, subtype));
+        return subtypes;
+    }
+
+    /**
+     * Selects the schema of the subtype named by the discriminator key of the given values.
+     *
+     * @param values the config values of the entry
+     * @return the schema of the subtype
+     * @throws ConfigurationException if the discriminator key is missing or names an unknown subtype
+     */
+    ConfigSchema<?> resolve(Map<?, ?> values) throws ConfigurationException {
+
+        Object name = values.get(key);
+        if (name == null) {
+            throw new ConfigurationException("The config " + baseType.getSimpleName() + " is missing the \"" + key + "\" of its subtype.");
+        }
+        Lazy<ConfigSchema<?>> schema = schemas.get(name.toString());
+        if (schema == null) {
+            throw new ConfigurationException("Unknown " + key + " \"" + name + "\" for the config " + baseType.getSimpleName()
+                    + ". Valid values are: " + String.join(", ", new TreeSet<>(schemas.keySet())));
+        }
+        return schema.get();
+    }
+
+    private static String getName(Class<?> subtype) {
+
+        ConfigType configType = subtype.getAnnotation(ConfigType.class);
+        if (configType != null) return configType.value();
+        String simpleName = subtype.getSimpleName();
+        return FieldNameFormatters.LOWER_UNDERSCORE.fromFieldName(Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1));
+    }
+
+    private static Class<?>[] getPermittedSubclasses(Class<?> type) {
+
+        if (GET_PERMITTED_SUBCLASSES == null) return new Class<?>[0];
+        try {
+            Class<?>[] permitted = (Class<?>[]) GET_PERMITTED_SUBCLASSES.invokeExact(type);
+            return permitted == null ? new Class<?>[0] : permitted;
+        } catch (Throwable e) {
+            throw new ConfigurationException("Unable to read the permitted subclasses of " + type.getSimpleName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    // sealed classes are only available from Java 17 on
+    private static MethodHandle findPermittedSubclasses() {
+
+        try {
+            return MethodHandles.publicLookup().findVirtual(Class.class, "getPermittedSubclasses", MethodType.methodType(Class[].class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+/**
+ * Converts a raw config value, e.g. a string or a list parsed from a config file, into the type of a config field.
+ * <p>Converters are compiled once per config field by {@link TypeConverters} when the config class is scanned.
+ */
+@FunctionalInterface
+public interface TypeConverter {
+
+    /**
+     * @param value the raw config value, never null
+     * @return the converted value
+     * @throws ConfigurationException if the value cannot be converted
+     */
+    Object convert(Object value) throws ConfigurationException;
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import lombok.NonNull;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Compiles {@link TypeConverter}s for the generic type of config fields.
+ * <p>The element types of collections and the key and value types of maps are resolved once from
+ * {@link Field#getGenericType()} and their elements are converted with the compiled element converters.
+ * Fields of type {@code List<Integer>}, {@code List<Long>} and {@code List<Double>} can optionally be filled with
+ * the compact {@link IntList}, {@link LongList} and {@link DoubleList} that parse their values without boxing.
+ * <p>Config classes used as elements of collections or values of maps, e.g. {@code Map<String, KitConfig>},
+ * are mapped from maps of config values with their cached {@link ConfigSchema#of(Class) schema}.
+ * The same applies to {@link ConfigSubtypes} config types, which select their subtype with a discriminator key.
+ */
+public final class TypeConverters {
+
+    /**
+     * The number of entries from which on maps of config objects are mapped in parallel,
+     * if the config field opted in with {@link ConfigOption#parallel()}.
+     */
+    public static final int PARALLEL_THRESHOLD = 256;
+
+    private static final ClassCache<Boolean> CONFIG_CLASSES = ClassCache.of(type -> {
+        if (SubtypeTable.isPolymorphic(type)) return true;
+        if (type.isInterface()) return InterfaceImplementation.isConfigInterface(type);
+        if (type.isPrimitive() || type.isArray() || type.isEnum()
+                || type.getName().startsWith("java.")) return false;
+        return type.isAnnotationPresent(ConfigOption.class)
+                || ConstructorBinding.isConstructorBound(type)
+                || FieldUtils.getFieldsWithAnnotation(type, ConfigOption.class).length > 0;
+    });
+
+    private TypeConverters() {
+    }
+
+    /**
+     * @param type the type of a value
+     * @return true if the type is a config class with its own config fields
+     */
+    public static boolean isConfigClass(@NonNull Class<?> type) {
+
+        return CONFIG_CLASSES.get(type);
+    }
+
+    /**
+     * @see #of(Type, boolean)
+     */
+    public static TypeConverter of(@NonNull Type type) {
+
+        return of(type, false);
+    }
+
+    /**
+     * Compiles the converter of the given generic type.
+     *
+     * @param type the generic type of the config field
+     * @param compact true if numeric lists should be filled with primitive backed lists
+     * @return the converter of the type
+     */
+    public static TypeConverter of(@NonNull Type type, boolean compact) {
+
+        return of(type, compact, false);
+    }
+
+    /**
+     * Compiles the converter of the given generic type.
+     *
+     * @param type the generic type of the config field
+     * @param compact true if numeric lists should be filled with primitive backed lists
+     * @param parallel true if large maps of config objects should be mapped in parallel on the common fork join pool
+     * @return the converter of the type
+     */
+    public static TypeConverter of(@NonNull Type type, boolean compact, boolean parallel) {
+
+        Class<?> rawType = getRawType(type);
+
+        if (rawType == IntList.class) return numberListConverter(TypeConverters::toIntList);
+        if (rawType == LongList.class) return numberListConverter(TypeConverters::toLongList);
+        if (rawType == DoubleList.class) return numberListConverter(TypeConverters::toDoubleList);
+
+        if (Collection.class.isAssignableFrom(rawType)) {
+            Type elementType = getTypeArgument(type, 0);
+            if (compact && rawType.isAssignableFrom(IntList.class)) {
+                if (elementType == Integer.class) return numberListConverter(TypeConverters::toIntList);
+                if (elementType == Long.class) return numberListConverter(TypeConverters::toLongList);
+                if (elementType == Double.class) return numberListConverter(TypeConverters::toDoubleList);
+            }
+            return collectionConverter(rawType, of(elementType, compact, parallel));
+        }
+
+        if (Map.class.isAssignableFrom(rawType)) {
+            return mapConverter(rawType,
+                    of(getTypeArgument(type, 0), compact, parallel),
+                    of(getTypeArgument(type, 1), compact, parallel),
+                    parallel);
+        }
+
+        if (rawType.isArray()) {
+            return arrayConverter(rawType.getComponentType(), of(rawType.getComponentType(), compact, parallel));
+        }
+
+        if (isConfigClass(rawType)) {
+            return new ConfigConverter(rawType);
+        }
+
+        return value -> ReflectionUtil.toObject(rawType, value);
+    }
+
+    static Class<?> getRawType(Type type) {
+
+        if (type instanceof Class) return (Class<?>) type;
+        if (type instanceof ParameterizedType) return getRawType(((ParameterizedType) type).getRawType());
+        if (type instanceof GenericArrayType) {
+            return Array.newInstance(getRawType(((GenericArrayType) type).getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType) return getRawType(((WildcardType) type).getUpperBounds()[0]);
+        if (type instanceof TypeVariable) return getRawType(((TypeVariable<?>) type).getBounds()[0]);
+        return Object.class;
+    }
+
+    static Type getTypeArgument(Type type, int index) {
+
+        if (type instanceof ParameterizedType) {
+            Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) return arguments[index];
+        }
+        return Object.class;
+    }
+
+    private static TypeConverter collectionConverter(Class<?> collectionType, TypeConverter elementConverter) {
+
+        Supplier<Collection<Object>> newCollection = collectionFactory(collectionType);
+        return value -> {
+            Collection<Object> result = newCollection.get();
+            if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    result.add(element == null ? null : elementConverter.convert(element));
+                }
+            } else if (value.getClass().isArray()) {
+                for (int i = 0; i < Array.getLength(value); i++) {
+                    Object element = Array.get(value, i);
+                    result.add(element == null ? null : elementConverter.convert(element));
+                }
+            } else if (value instanceof String) {
+                for (String element : (String[]) ReflectionUtil.toArray(String.class, (String) value)) {
+                    result.add(elementConverter.convert(element));
+                }
+            } else {
+                result.add(elementConverter.convert(value));
+            }
+            return result;
+        };
+    }
+
+    private static TypeConverter mapConverter(Class<?> mapType, TypeConverter keyConverter, TypeConverter valueConverter, boolean parallel) {
+
+        Supplier<Map<Object, Object>> newMap = mapFactory(mapType);
+        return value -> {
+            if (!(value instanceof Map)) {
+                throw new ConfigurationException("Unable to convert " + value.getClass().getSimpleName() + " to a map.");
+            }
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (valueConverter instanceof ConfigConverter) {
+                return convertConfigMap(newMap, map, keyConverter, (ConfigConverter) valueConverter, parallel);
+            }
+            Map<Object, Object> result = newMap.get();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                result.put(
+                        entry.getKey() == null ? null : keyConverter.convert(entry.getKey()),
+                        entry.getValue() == null ? null : valueConverter.convert(entry.getValue())
+                );
+            }
+            return result;
+        };
+    }
+
+    private static Map<Object, Object> convertConfigMap(Supplier<Map<Object, Object>> newMap, Map<?, ?> map, TypeConverter keyConverter, ConfigConverter valueConverter, boolean parallel) {
+
+        List<Map.Entry<?, ?>> entries = new ArrayList<>(map.entrySet());
+        Object[] values = new Object[entries.size()];
+        IntStream indices = IntStream.range(0, values.length);
+        if (parallel && values.length >= PARALLEL_THRESHOLD) indices = indices.parallel();
+        indices.forEach(i -> {
+            Map.Entry<?, ?> entry = entries.get(i);
+            try {
+                values[i] = entry.getValue() == null ? null : valueConverter.convert(entry.getValue());
+            } catch (ConfigurationException e) {
+                throw new ConfigurationException("Unable to map the config entry " + entry.getKey() + ": " + e.getMessage(), e);
+            }
+        });
+
+        Map<Object, Object> result = newMap.get();
+        for (int i = 0; i < values.length; i++) {
+            Object key = entries.get(i).getKey();
+            result.put(key == null ? null : keyConverter.convert(key), values[i]);
+        }
+        return result;
+    }
+
+    private static TypeConverter arrayConverter(Class<?> componentType, TypeConverter elementConverter) {
+
+        return value -> {
+            if (!(value instanceof Collection)) {
+                return ReflectionUtil.toObject(Array.newInstance(componentType, 0).getClass(), value);
+            }
+            Collection<?> elements = (Collection<?>) value;
+            Object array = Array.newInstance(componentType, elements.size());
+            int i = 0;
+            for (Object element : elements) {
+                if (element != null) Array.set(array, i, elementConverter.convert(element));
+                i++;
+            }
+            return array;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Collection<Object>> collectionFactory(Class<?> collectionType) {
+
+        if (collectionType.isAssignableFrom(ArrayList.class)) return ArrayList::new;
+        if (collectionType.isAssignableFrom(LinkedHashSet.class)) return LinkedHashSet::new;
+        if (collectionType.isAssignableFrom(TreeSet.class)) return TreeSet::new;
+        if (collectionType.isAssignableFrom(LinkedList.class)) return LinkedList::new;
+        Constructor<?> constructor = defaultConstructor(collectionType);
+        return () -> (Collection<Object>) newInstance(constructor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<Map<Object, Object>> mapFactory(Class<?> mapType) {
+
+        if (mapType.isAssignableFrom(LinkedHashMap.class)) return LinkedHashMap::new;
+        if (mapType.isAssignableFrom(TreeMap.class)) return TreeMap::new;
+        Constructor<?> constructor = defaultConstructor(mapType);
+        return () -> (Map<Object, Object>) newInstance(constructor);
+    }
+
+    private static Constructor<?> defaultConstructor(Class<?> type) throws ConfigurationException {
+
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            try {
+                return type.getConstructor();
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        throw new ConfigurationException("Unable to create instances of " + type.getCanonicalName()
+                + ". Use a collection or map type with a public no-args constructor or one of its interfaces.");
+    }
+
+    private static Object newInstance(Constructor<?> constructor) {
+
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ConfigurationException("Unable to create an instance of " + constructor.getDeclaringClass().getCanonicalName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static TypeConverter numberListConverter(TypeConverter parser) {
+
+        return value -> {
+            try {
+                return parser.convert(value);
+            } catch (NumberFormatException e) {
+                throw new ConfigurationException("Unable to convert \"" + value + "\" to a list of numbers: " + e.getMessage(), e);
+            }
+        };
+    }
+
+    private static IntList toIntList(Object value) {
+
+        if (value instanceof IntList) return (IntList) value;
+        if (value instanceof int[]) return IntList.of((int[]) value);
+        if (value instanceof Collection) {
+            int[] result = new int[((Collection<?>) value).size()];
+            int i = 0;
+            for (Object element : (Collection<?>) value) {
+                result[i++] = element instanceof Number ? ((Number) element).intValue() : Integer.parseInt(element.toString().trim());
+            }
+            return IntList.wrap(result);
+        }
+
+        String input = value.toString();
+        int[] result = new int[countElements(input)];
+        int start = 0;
+        for (int i = 0; i < result.length; i++) {
+            int end = nextSeparator(input, start);
+            result[i] = Integer.parseInt(input, trimStart(input, start, end), trimEnd(input, start, end), 10);
+            start = end + 1;
+        }
+        return IntList.wrap(result);
+    }
+
+    private static LongList toLongList(Object value) {
+
+        if (value instanceof LongList) return (LongList) value;
+        if (value instanceof long[]) return LongList.of((long[]) value);
+        if (value instanceof Collection) {
+            long[] result = new long[((Collection<?>) value).size()];
+            int i = 0;
+            for (Object element : (Collection<?>) value) {
+                result[i++] = element instanceof Number ? ((Number) element).longValue() : Long.parseLong(element.toString().trim());
+            }
+            return LongList.wrap(result);
+        }
+
+        String input = value.toString();
+        long[] result = new long[countElements(input)];
+        int start = 0;
+        for (int i = 0; i < result.length; i++) {
+            int end = nextSeparator(input, start);
+            result[i] = Long.parseLong(input, trimStart(input, start, end), trimEnd(input, start, end), 10);
+            start = end + 1;
+        }
+        return LongList.wrap(result);
+    }
+
+    private static DoubleList toDoubleList(Object value) {
+
+        if (value instanceof DoubleList) return (DoubleList) value;
+        if (value instanceof double[]) return DoubleList.of((double[]) value);
+        if (value instanceof Collection) {
+            double[] result = new double[((Collection<?>) value).size()];
+            int i = 0;
+            for (Object element : (Collection<?>) value) {
+                result[i++] = element instanceof Number ? ((Number) element).doubleValue() : Double.parseDouble(element.toString());
+            }
+            return DoubleList.wrap(result);
+        }
+
+        String input = value.toString();
+        double[] result = new double[countElements(input)];
+        int start = 0;
+        for (int i = 0; i < result.length; i++) {
+            int end = nextSeparator(input, start);
+            result[i] = Double.parseDouble(input.substring(start, end));
+            start = end + 1;
+        }
+        return DoubleList.wrap(result);
+    }
+
+    private static int countElements(String input) {
+
+        if (StringUtils.isNullOrWhiteSpace(input)) return 0;
+        int count = 1;
+        for (int i = 0; i < input.length(); i++) {
+            if (input.charAt(i) == ',') count++;
+        }
+        return count;
+    }
+
+    private static int nextSeparator(String input, int start) {
+
+        int end = input.indexOf(',', start);
+        return end < 0 ? input.length() : end;
+    }
+
+    private static int trimStart(String input, int start, int end) {
+
+        while (start < end && Character.isWhitespace(input.charAt(start))) start++;
+        return start;
+    }
+
+    private static int trimEnd(String input, int start, int end) {
+
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) end--;
+        return end;
+    }
+
+    /**
+     * Maps nested config objects from a map of config values with the cached schema of the config class.
+     * The schema is resolved on first use which allows config classes to reference themselves.
+     * Polymorphic config types select the schema of their subtype with their {@link SubtypeTable}.
+     */
+    private static final class ConfigConverter implements TypeConverter {
+
+        private final Class<?> type;
+        private final Lazy<ConfigSchema<?>> schema;
+        private final SubtypeTable subtypes;
+
+        private ConfigConverter(Class<?> type) {
+            this.type = type;
+            this.schema = Lazy.of(() -> ConfigSchema.of(type));
+            this.subtypes = SubtypeTable.of(type).orElse(null);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object convert(Object value) throws ConfigurationException {
+
+            if (type.isInstance(value)) return value;
+            if (!(value instanceof Map)) {
+                throw new ConfigurationException("Unable to convert " + value.getClass().getSimpleName() + " to the config " + type.getSimpleName() + ".");
+            }
+            Map<String, ?> values = (Map<String, ?>) value;
+            ConfigSchema<?> configSchema = subtypes == null ? schema.get() : subtypes.resolve(values);
+            return ConfigMap.of(configSchema).with(ConfigSource.of(values)).create();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+/**
+ * A bounded pool of weakly referenced strings that deduplicates equal config values.
+ * <p>Share one interner between all config maps of a large config set with {@link ConfigMap#intern(ValueInterner)}
+ * to make repeated values, like world names or permission nodes, share the same string instance.
+ * Strings are removed from the pool once no config references them anymore.
+ * If the pool is full new strings are not pooled but returned as they are.
+ */
+public final class ValueInterner {
+
+    /**
+     * The default number of distinct strings kept by an interner.
+     */
+    public static final int DEFAULT_MAX_SIZE = 65536;
+
+    /**
+     * @return a new interner that holds up to {@link #DEFAULT_MAX_SIZE} strings
+     */
+    public static ValueInterner create() {
+
+        return create(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize the maximum number of distinct strings kept in the pool
+     * @return a new interner with the given maximum size
+     */
+    public static ValueInterner create(int maxSize) {
+
+        if (maxSize < 1) throw new IllegalArgumentException("The max size of the interner must be positive.");
+        return new ValueInterner(maxSize);
+    }
+
+    private final Map<String, WeakReference<String>> pool = new WeakHashMap<>();
+    private final int maxSize;
+
+    private ValueInterner(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the number of strings currently kept in the pool
+     */
+    public synchronized int size() {
+
+        return pool.size();
+    }
+
+    /**
+     * Returns the pooled instance of the given string.
+     *
+     * @param value the string that should be deduplicated
+     * @return the pooled string that is equal to the given value or the value itself
+     */
+    public synchronized String intern(String value) {
+
+        if (value == null) return null;
+        WeakReference<String> reference = pool.get(value);
+        String pooled = reference == null ? null : reference.get();
+        if (pooled != null) return pooled;
+        if (pool.size() < maxSize) {
+            pool.put(value, new WeakReference<>(value));
+        }
+        return value;
+    }
+
+    /**
+     * Deduplicates the strings inside a converted config value.
+     * <p>Strings are interned directly. The elements of arrays and lists are replaced in place.
+     * Maps and sets are copied with their interned keys and values.
+     *
+     * @param value the converted config value
+     * @return the value with deduplicated strings
+     */
+    @SuppressWarnings("unchecked")
+    public Object internValue(Object value) {
+
+        if (value instanceof String) return intern((String) value);
+        if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] instanceof String) array[i] = intern((String) array[i]);
+            }
+        } else if (value instanceof List) {
+            try {
+                ListIterator<Object> iterator = ((List<Object>) value).listIterator();
+                while (iterator.hasNext()) {
+                    Object element = iterator.next();
+                    if (element instanceof String) iterator.set(intern((String) element));
+                }
+            } catch (UnsupportedOperationException ignored) {
+                // immutable lists passed in by the caller are kept as they are
+            }
+        } else if (value instanceof LinkedHashSet) {
+            Set<Object> set = new LinkedHashSet<>();
+            for (Object element : (Set<?>) value) {
+                set.add(internValue(element));
+            }
+            return set;
+        } else if (value instanceof LinkedHashMap) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(internValue(entry.getKey()), internValue(entry.getValue()));
+            }
+            return map;
+        }
+        return value;
+    }
+}
@@ -6,10 +6,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 
 import static net.silthus.configmapper.KeyValuePair.of;
 import static org.assertj.core.api.Assertions.*;
@@ -331,6 +340,1959 @@ public class ConfigMapTests {
                     .extracting(config -> config.sub.getDuration(), config -> config.sub.annotated.foo)
                     .contains(30, 100);
         }
+
+        @Test
+        @DisplayName("should compile accessors for nested config fields")
+        void shouldCompileNestedAccessors() {
+
+            SubClassWithParentFields cfg = new SubClassWithParentFields();
+            ConfigFieldInformation information = ConfigUtil.getConfigFields(SubClassWithParentFields.class).get("sub.annotated.foo");
+
+            information.accessor().set(cfg, 42);
+
+            assertThat(information.accessor().get(cfg)).isEqualTo(42);
+            assertThat(cfg.sub.annotated.foo).isEqualTo(42);
+        }
+
+        @Test
+        @DisplayName("should create missing nested config objects when setting nested fields")
+        void shouldCreateMissingNestedObjects() {
+
+            ExpensiveConfig cfg = ConfigMap.of(ExpensiveConfig.class)
+                    .with(of("nested.value", 5))
+                    .applyTo(new ExpensiveConfig());
+
+            assertThat(cfg.nested).isNotNull()
+                    .extracting(nested -> nested.value)
+                    .isEqualTo(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("with key index")
+    class KeyIndex {
+
+        private ConfigKeyIndex index;
+
+        @BeforeEach
+        void setUp() {
+            index = ConfigMap.of(ConfiguredObject.class).keyIndex();
+        }
+
+        @Test
+        @DisplayName("should list all fields with the given prefix sorted by position and name")
+        void shouldListFieldsWithPrefix() {
+
+            assertThat(index.withPrefix("test."))
+                    .extracting(ConfigFieldInformation::identifier)
+                    .containsExactly("test.parent_field", "test.required", "test.all_annotations", "test.default_field", "test.nested.nested_field");
+            assertThat(index.withPrefix("test.def"))
+                    .extracting(ConfigFieldInformation::identifier)
+                    .containsExactly("test.default_field");
+            assertThat(index.withPrefix("foo")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should find the longest declared parent path of a key")
+        void shouldFindLongestPrefixMatch() {
+
+            assertThat(index.longestPrefixMatch("test.nested.nested_field.foo"))
+                    .get().extracting(ConfigFieldInformation::identifier)
+                    .isEqualTo("test.nested.nested_field");
+            assertThat(index.longestPrefixMatch("val1")).get().extracting(ConfigFieldInformation::identifier).isEqualTo("val1");
+            assertThat(index.longestPrefixMatch("val")).isEmpty();
+            assertThat(index.longestPrefixMatch("val12")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should iterate all fields and share the index between config maps")
+        void shouldIterateAllFields() {
+
+            ConfigMap<ConfiguredObject> configMap = ConfigMap.of(ConfiguredObject.class);
+
+            assertThat(index).hasSize(configMap.configFields().size());
+            assertThat(index.get("test.required")).isPresent();
+            assertThat(configMap.with(of("val1", "foo")).keyIndex()).isSameAs(configMap.keyIndex());
+        }
+    }
+
+    @Nested
+    @DisplayName("with key normalization")
+    class KeyNormalization {
+
+        @Test
+        @DisplayName("should map aliases declared in the config option")
+        void shouldMapAliases() {
+
+            AliasConfig config = ConfigMap.of(AliasConfig.class)
+                    .with(of("size", 10), of("nested.title", "foo"))
+                    .create();
+
+            assertThat(config).extracting(cfg -> cfg.poolSize, cfg -> cfg.nested.name)
+                    .contains(10, "foo");
+        }
+
+        @Test
+        @DisplayName("should only ignore the case and separators of keys if enabled")
+        void shouldNormalizeKeysIfEnabled() {
+
+            ConfigMap<AliasConfig> configMap = ConfigMap.of(AliasConfig.class);
+
+            assertThat(configMap.with(of("Pool-Size", 10)).create().poolSize).isEqualTo(5);
+            assertThat(configMap.normalizeKeys().with(of("Pool-Size", 10)).create().poolSize).isEqualTo(10);
+            assertThat(configMap.normalizeKeys().with(of("poolSize", 20)).create().poolSize).isEqualTo(20);
+            assertThat(configMap.normalizeKeys().with(of("NESTED.Title", "bar")).create().nested.name).isEqualTo("bar");
+        }
+
+        @Test
+        @DisplayName("should resolve normalized keys from map sources")
+        void shouldNormalizeSourceKeys() {
+
+            ConfigMap<AliasConfig> configMap = ConfigMap.of(AliasConfig.class)
+                    .with(ConfigSource.of(Map.of("Pool-Size", 10, "NESTED", Map.of("Title", "bar"))));
+
+            assertThat(configMap.create()).extracting(cfg -> cfg.poolSize, cfg -> cfg.nested.name)
+                    .containsExactly(5, "");
+            assertThat(configMap.normalizeKeys().create()).extracting(cfg -> cfg.poolSize, cfg -> cfg.nested.name)
+                    .containsExactly(10, "bar");
+        }
+
+        @Test
+        @DisplayName("should resolve keys without allocating new strings")
+        void shouldResolveCharSequences() {
+
+            ConfigSchema<AliasConfig> schema = ConfigMap.of(AliasConfig.class).schema().withKeyNormalization(true);
+
+            assertThat(schema.findField(new StringBuilder("POOL_SIZE")))
+                    .isNotNull()
+                    .extracting(ConfigFieldInformation::identifier)
+                    .isEqualTo("pool_size");
+            assertThat(schema.findField("pool.size")).isNull();
+        }
+    }
+
+    public static class AliasConfig {
+
+        @ConfigOption(aliases = "size")
+        private int poolSize = 5;
+        @ConfigOption
+        private AliasNestedConfig nested = new AliasNestedConfig();
+    }
+
+    public static class AliasNestedConfig {
+
+        @ConfigOption(aliases = {"title", "label"})
+        private String name = "";
+    }
+
+    @Nested
+    @DisplayName("export config object")
+    class ExportConfig {
+
+        @Test
+        @DisplayName("should export all config values as key value pairs")
+        void shouldExportKeyValuePairs() {
+
+            ConfiguredObject config = new ConfiguredObject();
+            config.setVal1("bar");
+
+            assertThat(ConfigMap.of(ConfiguredObject.class).toMap(config, false))
+                    .containsEntry("val1", "bar")
+                    .containsEntry("val2", false)
+                    .containsEntry("test.nested.nested_field", "foobar")
+                    .doesNotContainKey("ignored");
+        }
+
+        @Test
+        @DisplayName("should skip default values if requested")
+        void shouldSkipDefaults() {
+
+            ConfiguredObject config = new ConfiguredObject();
+            config.setVal1("bar");
+            config.getTest().setRequired(5);
+
+            assertThat(ConfigMap.of(ConfiguredObject.class).toMap(config, true))
+                    .containsOnlyKeys("val1", "test.required");
+        }
+
+        @Test
+        @DisplayName("should export arrays in the format read by toArray")
+        void shouldRoundTripArrays() {
+
+            ArrayConfig config = new ArrayConfig();
+            config.array = new String[]{"a,b", "c", "d"};
+            ConfigMap<ArrayConfig> configMap = ConfigMap.of(ArrayConfig.class);
+
+            List<KeyValuePair> pairs = configMap.toKeyValuePairs(config);
+
+            assertThat(pairs).contains(of("array", "\"a,b\",c,d"));
+            assertThat(configMap.with(pairs).create().array)
+                    .containsExactly("a,b", "c", "d");
+        }
+
+        @Test
+        @DisplayName("should quote the last array element if it contains a comma")
+        void shouldRoundTripLastArrayElement() {
+
+            ArrayConfig config = new ArrayConfig();
+            config.array = new String[]{"a", "b,c"};
+            ConfigMap<ArrayConfig> configMap = ConfigMap.of(ArrayConfig.class);
+
+            List<KeyValuePair> pairs = configMap.toKeyValuePairs(config);
+
+            assertThat(pairs).contains(of("array", "a,\"b,c\""));
+            assertThat(configMap.with(pairs).create().array)
+                    .containsExactly("a", "b,c");
+
+            config.array = new String[]{"a", "\"b\",c"};
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> configMap.toKeyValuePairs(config))
+                    .withMessageContaining("cannot contain quotes");
+        }
+    }
+
+    @Nested
+    @DisplayName("with immutable configs")
+    class ImmutableConfigs {
+
+        @Test
+        @DisplayName("should create records through their canonical constructor")
+        void shouldCreateRecords() {
+
+            RecordConfig config = ConfigMap.of(RecordConfig.class)
+                    .with(of("name", "foo"), of("values", "1,2,3"))
+                    .create();
+
+            assertThat(config).extracting(RecordConfig::name, RecordConfig::size)
+                    .containsExactly("foo", 0);
+            assertThat(config.values()).containsExactly(1, 2, 3);
+        }
+
+        @Test
+        @DisplayName("should create classes through their config constructor")
+        void shouldCreateWithConfigConstructor() {
+
+            ConstructorConfig.instances = 0;
+            ConstructorConfig config = ConfigMap.of(ConstructorConfig.class)
+                    .with(of("name", "foo"), of("amount", 5), of("mutable", "bar"))
+                    .create();
+
+            assertThat(config).extracting(cfg -> cfg.name, cfg -> cfg.amount, cfg -> cfg.mutable)
+                    .containsExactly("foo", 5, "bar");
+            assertThat(ConstructorConfig.instances).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should report missing required values of records")
+        void shouldValidateRequiredRecordComponents() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(RecordConfig.class).with(of("size", 2)).create())
+                    .withMessageContaining("name");
+        }
+
+        @Test
+        @DisplayName("should reject final fields that are no constructor arguments")
+        void shouldRejectUnboundFinalFields() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(FinalFieldConstructorConfig.class).with(of("name", "foo"), of("amount", 2)).create())
+                    .withMessageContaining("amount is neither a constructor argument nor writable");
+        }
+
+        @Test
+        @DisplayName("should not apply values to existing instances of immutable configs")
+        void shouldNotApplyToImmutableConfigs() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(RecordConfig.class).applyTo(new RecordConfig("foo", 1, new int[0])))
+                    .withMessageContaining("immutable");
+        }
+    }
+
+    public record RecordConfig(@ConfigOption(required = true) String name, int size, int[] values) {
+    }
+
+    public static class FinalFieldConstructorConfig {
+
+        @ConfigOption
+        private final String name;
+        @ConfigOption
+        private final int amount = 1;
+
+        @ConfigConstructor
+        public FinalFieldConstructorConfig(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class ConstructorConfig {
+
+        static int instances = 0;
+
+        @ConfigOption
+        private final String name;
+        @ConfigOption
+        private final int amount;
+        @ConfigOption
+        private String mutable;
+
+        @ConfigConstructor
+        public ConstructorConfig(String name, int amount) {
+            this.name = name;
+            this.amount = amount;
+            instances++;
+        }
+    }
+
+    @Nested
+    @DisplayName("with reused instances")
+    class ReusedInstances {
+
+        @Test
+        @DisplayName("should reset all fields to their defaults")
+        void shouldResetToDefaults() {
+
+            ConfigMap<ConfiguredObject> configMap = ConfigMap.of(ConfiguredObject.class);
+            ConfiguredObject config = configMap
+                    .with(of("val1", "bar"), of("test.nested.nested_field", "baz"), of("test.required", 3))
+                    .create();
+
+            configMap.reset(config);
+
+            assertThat(config).extracting(ConfiguredObject::getVal1, cfg -> cfg.getTest().getNested().nestedField)
+                    .containsExactly("foo", "foobar");
+        }
+
+        @Test
+        @DisplayName("should not share mutable default values between instances")
+        void shouldCopyMutableDefaults() {
+
+            ConfigMap<PooledConfig> configMap = ConfigMap.of(PooledConfig.class);
+            PooledConfig first = configMap.reset(new PooledConfig());
+            PooledConfig second = configMap.reset(new PooledConfig());
+
+            assertThat(first.names).isNotSameAs(second.names).isEqualTo(second.names);
+        }
+
+        @Test
+        @DisplayName("should reapply new values to a reset instance")
+        void shouldReapplyValues() {
+
+            ConfigMap<ConfiguredObject> configMap = ConfigMap.of(ConfiguredObject.class);
+            ConfiguredObject config = configMap.with(of("val1", "bar"), of("val2", true)).create();
+
+            configMap.reapply(config, of("val2", true), of("test.required", 1));
+
+            assertThat(config).extracting(ConfiguredObject::getVal1, ConfiguredObject::isVal2, cfg -> cfg.getTest().getRequired())
+                    .containsExactly("foo", true, 1);
+        }
+    }
+
+    public static class PooledConfig {
+
+        @ConfigOption
+        private String world = "world";
+        @ConfigOption
+        private String[] names = new String[]{"foo", "bar"};
+    }
+
+    @Nested
+    @DisplayName("with generic collections")
+    class GenericCollections {
+
+        @Test
+        @DisplayName("should convert the elements of lists and maps")
+        void shouldConvertElements() {
+
+            GenericConfig config = ConfigMap.of(GenericConfig.class)
+                    .with(
+                            of("numbers", List.of("1", "2", 3L)),
+                            of("weights", Map.of("foo", "1.5", "bar", 2)),
+                            of("names", "foo,bar")
+                    ).create();
+
+            assertThat(config.numbers).containsExactly(1, 2, 3);
+            assertThat(config.weights).containsEntry("foo", 1.5d).containsEntry("bar", 2.0d);
+            assertThat(config.names).containsExactly("foo", "bar");
+        }
+
+        @Test
+        @DisplayName("should fill compact primitive lists if requested")
+        void shouldFillCompactLists() {
+
+            GenericConfig config = ConfigMap.of(GenericConfig.class)
+                    .with(
+                            of("compact_numbers", "1, 2,3"),
+                            of("longs", List.of(4, 5))
+                    ).create();
+
+            assertThat(config.compactNumbers).isInstanceOf(IntList.class).containsExactly(1, 2, 3);
+            assertThat(((IntList) config.compactNumbers).getInt(1)).isEqualTo(2);
+            assertThat(config.longs.toLongArray()).containsExactly(4L, 5L);
+        }
+
+        @Test
+        @DisplayName("should report invalid numbers of compact lists with the config field")
+        void shouldReportInvalidCompactNumbers() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(GenericConfig.class).with(of("compact_numbers", "1,x")).create())
+                    .withMessageContaining("compact_numbers")
+                    .withMessageContaining("\"1,x\" to a list of numbers");
+        }
+
+        @Test
+        @DisplayName("should fill queues and deques")
+        void shouldFillQueues() {
+
+            QueueConfig config = ConfigMap.of(QueueConfig.class)
+                    .with(of("queue", "1,2"), of("deque", Arrays.asList("a", null, "b")))
+                    .create();
+
+            assertThat(config.queue).containsExactly(1, 2);
+            assertThat(config.deque).containsExactly("a", null, "b");
+        }
+
+        @Test
+        @DisplayName("should reject collection types that cannot be created when the schema is built")
+        void shouldRejectAbstractCollectionTypes() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(BlockingQueueConfig.class))
+                    .withMessageContaining("Unable to create instances of java.util.concurrent.BlockingQueue");
+        }
+    }
+
+    public static class QueueConfig {
+
+        @ConfigOption
+        private Queue<Integer> queue;
+        @ConfigOption
+        private Deque<String> deque;
+    }
+
+    public static class BlockingQueueConfig {
+
+        @ConfigOption
+        private BlockingQueue<String> queue;
+    }
+
+    public static class GenericConfig {
+
+        @ConfigOption
+        private List<Integer> numbers;
+        @ConfigOption
+        private Map<String, Double> weights;
+        @ConfigOption
+        private Set<String> names;
+        @ConfigOption(compact = true)
+        private List<Integer> compactNumbers;
+        @ConfigOption
+        private LongList longs;
+    }
+
+    @Nested
+    @DisplayName("with lazy scan mode")
+    class LazyScanMode {
+
+        @BeforeEach
+        void setUp() {
+            ExpensiveConfig.instances = 0;
+            ExpensiveNestedConfig.instances = 0;
+        }
+
+        @Test
+        @DisplayName("should not create instances while scanning")
+        void shouldNotCreateInstancesWhileScanning() {
+
+            Map<String, ConfigFieldInformation> fields = ConfigUtil.getConfigFields(ExpensiveConfig.class, FieldNameFormatters.LOWER_UNDERSCORE, ScanMode.LAZY);
+
+            assertThat(fields).containsKeys("name", "nested.value");
+            assertThat(ExpensiveConfig.instances).isZero();
+            assertThat(ExpensiveNestedConfig.instances).isZero();
+        }
+
+        @Test
+        @DisplayName("should read all defaults from one shared prototype")
+        void shouldReadDefaultsFromSharedPrototype() {
+
+            Map<String, ConfigFieldInformation> fields = ConfigUtil.getConfigFields(ExpensiveConfig.class, FieldNameFormatters.LOWER_UNDERSCORE, ScanMode.LAZY);
+
+            assertThat(fields.get("name").defaultValue()).isEqualTo("foo");
+            assertThat(fields.get("count").defaultValue()).isEqualTo(3);
+            assertThat(fields.get("nested.value").defaultValue()).isEqualTo(10);
+            assertThat(ExpensiveConfig.instances).isEqualTo(1);
+            assertThat(ExpensiveNestedConfig.instances).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should apply config scanned in lazy mode")
+        void shouldApplyLazyScannedConfig() {
+
+            ExpensiveConfig config = ConfigMap.of(ExpensiveConfig.class, ScanMode.LAZY)
+                    .with(of("name", "bar"))
+                    .create();
+
+            assertThat(config.name).isEqualTo("bar");
+        }
+    }
+
+    public static class ExpensiveConfig {
+
+        static int instances = 0;
+
+        @ConfigOption
+        private String name = "foo";
+        @ConfigOption
+        private int count = 3;
+        @ConfigOption
+        private ExpensiveNestedConfig nested;
+
+        public ExpensiveConfig() {
+            instances++;
+        }
+    }
+
+    public static class ExpensiveNestedConfig {
+
+        static int instances = 0;
+
+        @ConfigOption
+        private int value = 10;
+
+        public ExpensiveNestedConfig() {
+            instances++;
+        }
+    }
+
+    @Nested
+    @DisplayName("with value interning")
+    class Interning {
+
+        @Test
+        @DisplayName("should share equal string values between configs")
+        void shouldShareEqualStrings() {
+
+            ConfigMap<InternedConfig> configMap = ConfigMap.of(InternedConfig.class).intern(ValueInterner.create());
+
+            InternedConfig first = configMap.with(of("world", new String("world_nether")), of("permissions", "a.b,c.d"), of("tags", "pvp,creative")).create();
+            InternedConfig second = configMap.with(of("world", new String("world_nether")), of("permissions", "a.b,c.d"), of("tags", "pvp,creative")).create();
+
+            assertThat(first.world).isSameAs(second.world);
+            assertThat(first.permissions[0]).isSameAs(second.permissions[0]);
+            assertThat(first.tags).containsExactly("pvp", "creative");
+            assertThat(first.tags.get(1)).isSameAs(second.tags.get(1));
+        }
+
+        @Test
+        @DisplayName("should not share converted values without interning")
+        void shouldNotShareWithoutInterning() {
+
+            ConfigMap<InternedConfig> configMap = ConfigMap.of(InternedConfig.class);
+
+            InternedConfig first = configMap.with(of("tags", "pvp,creative")).create();
+            InternedConfig second = configMap.with(of("tags", "pvp,creative")).create();
+
+            assertThat(first.tags.get(1)).isEqualTo(second.tags.get(1)).isNotSameAs(second.tags.get(1));
+        }
+
+        @Test
+        @DisplayName("should not pool more strings than the max size")
+        void shouldNotPoolMoreThanMaxSize() {
+
+            ValueInterner interner = ValueInterner.create(2);
+
+            interner.intern("a");
+            interner.intern("b");
+            String c = new String("c");
+
+            assertThat(interner.intern(c)).isSameAs(c);
+            assertThat(interner.intern(new String("c"))).isNotSameAs(c);
+            assertThat(interner.size()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should keep one string instance per distinct value in large config sets")
+        void shouldKeepOneInstancePerValue() {
+
+            int configs = 20000;
+            ConfigMap<InternedConfig> plain = ConfigMap.of(InternedConfig.class);
+            ConfigMap<InternedConfig> interned = plain.intern(ValueInterner.create());
+
+            // 3 worlds, server.build, 5 chat permissions, pvp and survival
+            assertThat(distinctStrings(createConfigs(interned, configs))).isEqualTo(11);
+            assertThat(distinctStrings(createConfigs(plain, configs))).isGreaterThan(configs);
+        }
+
+        @Test
+        @DisplayName("should retain less heap for large config sets")
+        void shouldRetainLessHeap() {
+
+            int configs = 50000;
+            ConfigMap<InternedConfig> plain = ConfigMap.of(InternedConfig.class);
+            ConfigMap<InternedConfig> interned = plain.intern(ValueInterner.create());
+            // builds the schema and fills the interner before the heap is measured
+            createConfigs(interned, 1000);
+
+            long plainBytes = AllocationMeter.retainedBytes(() -> createConfigs(plain, configs));
+            long internedBytes = AllocationMeter.retainedBytes(() -> createConfigs(interned, configs));
+
+            assertThat(internedBytes)
+                    .withFailMessage("interned configs retained %d bytes, plain configs %d bytes", internedBytes, plainBytes)
+                    .isLessThan(plainBytes / 2);
+        }
+
+        private List<InternedConfig> createConfigs(ConfigMap<InternedConfig> configMap, int count) {
+
+            List<InternedConfig> configs = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                configs.add(configMap.with(
+                        of("world", new String("world_" + (i % 3))),
+                        of("permissions", "server.build," + "server.chat." + (i % 5)),
+                        of("tags", "pvp,survival")
+                ).create());
+            }
+            return configs;
+        }
+
+        private int distinctStrings(List<InternedConfig> configs) {
+
+            Set<String> strings = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<>());
+            for (InternedConfig config : configs) {
+                strings.add(config.world);
+                strings.addAll(List.of(config.permissions));
+                strings.addAll(config.tags);
+            }
+            return strings.size();
+        }
+    }
+
+    public static class InternedConfig {
+
+        @ConfigOption
+        private String world;
+        @ConfigOption
+        private String[] permissions = new String[0];
+        @ConfigOption
+        private List<String> tags = new ArrayList<>(List.of("pvp", "survival"));
+    }
+
+    @Nested
+    @DisplayName("with conversion cache")
+    class ConversionCaching {
+
+        @Test
+        @DisplayName("should convert repeated values only once")
+        void shouldCacheRepeatedValues() {
+
+            ConversionCache cache = ConversionCache.create();
+            ConfigMap<CachedConfig> configMap = ConfigMap.of(CachedConfig.class).cache(cache);
+
+            for (int i = 0; i < 10; i++) {
+                CachedConfig config = configMap.with(of("count", "10"), of("mode", "SECOND"), of("names", "a,b")).create();
+                assertThat(config.count).isEqualTo(10);
+                assertThat(config.mode).isEqualTo(CacheMode.SECOND);
+                assertThat(config.names).containsExactly("a", "b");
+            }
+
+            assertThat(cache.stats().misses()).isEqualTo(3);
+            assertThat(cache.stats().hits()).isEqualTo(27);
+            assertThat(cache.stats().hitRate()).isEqualTo(0.9);
+        }
+
+        @Test
+        @DisplayName("should return a copy of cached arrays")
+        void shouldCopyCachedArrays() {
+
+            ConfigMap<CachedConfig> configMap = ConfigMap.of(CachedConfig.class).cache(ConversionCache.create());
+
+            CachedConfig first = configMap.with(of("names", "a,b")).create();
+            first.names[0] = "changed";
+            CachedConfig second = configMap.with(of("names", "a,b")).create();
+
+            assertThat(second.names).containsExactly("a", "b");
+        }
+
+        @Test
+        @DisplayName("should not cache mutable collections")
+        void shouldNotCacheCollections() {
+
+            ConversionCache cache = ConversionCache.create();
+            ConfigMap<CachedConfig> configMap = ConfigMap.of(CachedConfig.class).cache(cache);
+
+            CachedConfig first = configMap.with(of("tags", "a,b")).create();
+            CachedConfig second = configMap.with(of("tags", "a,b")).create();
+
+            assertThat(first.tags).isNotSameAs(second.tags).isEqualTo(second.tags);
+            assertThat(cache.stats().size()).isZero();
+        }
+
+        @Test
+        @DisplayName("should evict the least recently used values")
+        void shouldEvictLeastRecentlyUsed() {
+
+            ConversionCache cache = ConversionCache.create(2);
+            ConfigMap<CachedConfig> configMap = ConfigMap.of(CachedConfig.class).cache(cache);
+
+            configMap.with(of("count", "1")).create();
+            configMap.with(of("count", "2")).create();
+            configMap.with(of("count", "1")).create();
+            configMap.with(of("count", "3")).create();
+            configMap.with(of("count", "1")).create();
+
+            assertThat(cache.stats())
+                    .extracting(ConversionCache.Stats::size, ConversionCache.Stats::hits, ConversionCache.Stats::evictions)
+                    .containsExactly(2, 2L, 1L);
+        }
+    }
+
+    public enum CacheMode {
+        FIRST,
+        SECOND
+    }
+
+    public static class CachedConfig {
+
+        @ConfigOption
+        private int count;
+        @ConfigOption
+        private CacheMode mode = CacheMode.FIRST;
+        @ConfigOption
+        private String[] names = new String[0];
+        @ConfigOption
+        private List<String> tags = new ArrayList<>();
+    }
+
+    @Nested
+    @DisplayName("with config sources")
+    class ConfigSources {
+
+        @Test
+        @DisplayName("should resolve values from the source with the highest priority")
+        void shouldUseHighestPriority() {
+
+            SourceConfig config = ConfigMap.of(SourceConfig.class)
+                    .with(ConfigSource.of(Map.of("name", "override"), 10),
+                            ConfigSource.of(Map.of("name", "file", "count", 5)))
+                    .create();
+
+            assertThat(config.name).isEqualTo("override");
+            assertThat(config.count).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("should prefer the source added last if the priority is equal")
+        void shouldPreferLastSourceOnEqualPriority() {
+
+            SourceConfig config = ConfigMap.of(SourceConfig.class)
+                    .with(ConfigSource.of(Map.of("name", "first")))
+                    .with(ConfigSource.of(List.of(of("name", "second"))))
+                    .create();
+
+            assertThat(config.name).isEqualTo("second");
+        }
+
+        @Test
+        @DisplayName("should let key value pairs override all sources")
+        void shouldOverrideSourcesWithKeyValuePairs() {
+
+            SourceConfig config = ConfigMap.of(SourceConfig.class)
+                    .with(of("name", "pair"))
+                    .with(ConfigSource.of(Map.of("name", "source"), 100))
+                    .create();
+
+            assertThat(config.name).isEqualTo("pair");
+        }
+
+        @Test
+        @DisplayName("should only look up declared keys in nested maps")
+        void shouldOnlyLookUpDeclaredKeys() {
+
+            List<String> requestedKeys = new ArrayList<>();
+            ConfigSource nested = ConfigSource.of(Map.of("nested", Map.of("value", 42), "unknown", "foo"));
+            ConfigSource source = key -> {
+                requestedKeys.add(key);
+                return nested.get(key);
+            };
+
+            SourceConfig config = ConfigMap.of(SourceConfig.class).with(source).create();
+
+            assertThat(config.nested.value).isEqualTo(42);
+            assertThat(requestedKeys).containsExactlyInAnyOrder("name", "count", "nested.value");
+        }
+
+        @Test
+        @DisplayName("should resolve required fields from sources")
+        void shouldResolveRequiredFields() {
+
+            assertThatCode(() -> ConfigMap.of(RequiredSourceConfig.class)
+                    .with(ConfigSource.of(Map.of("required", "foo")))
+                    .create())
+                    .doesNotThrowAnyException();
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(RequiredSourceConfig.class).with(ConfigSource.of(Map.of())).create());
+        }
+    }
+
+    @Nested
+    @DisplayName("with environment sources")
+    class EnvironmentSources {
+
+        @Test
+        @DisplayName("should map identifiers to prefixed environment variable names")
+        void shouldMapIdentifiersToVariableNames() {
+
+            EnvironmentConfigSource source = EnvironmentConfigSource.of(Map.of(), "MYPLUGIN_", FieldNameFormatters.UPPER_UNDERSCORE, "_");
+
+            assertThat(source.name("database.pool_size")).isEqualTo("MYPLUGIN_DATABASE_POOL_SIZE");
+            assertThat(source.name("poolSize")).isEqualTo("MYPLUGIN_POOL_SIZE");
+        }
+
+        @Test
+        @DisplayName("should load config values from environment variables")
+        void shouldLoadFromEnvironment() {
+
+            EnvironmentConfigSource environment = EnvironmentConfigSource.of(
+                    Map.of("MYPLUGIN_NAME", "env", "MYPLUGIN_NESTED_VALUE", "3"), "MYPLUGIN", FieldNameFormatters.UPPER_UNDERSCORE, "_");
+
+            SourceConfig config = ConfigMap.of(SourceConfig.class).with(environment).create();
+
+            assertThat(config.name).isEqualTo("env");
+            assertThat(config.nested.value).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should load config values from system properties")
+        void shouldLoadFromSystemProperties() {
+
+            System.setProperty("configmapper.test.count", "12");
+            try {
+                SourceConfig config = ConfigMap.of(SourceConfig.class)
+                        .with(EnvironmentConfigSource.systemProperties("configmapper.test"))
+                        .create();
+
+                assertThat(config.count).isEqualTo(12);
+            } finally {
+                System.clearProperty("configmapper.test.count");
+            }
+        }
+    }
+
+    public static class SourceConfig {
+
+        @ConfigOption
+        private String name = "default";
+        @ConfigOption
+        private int count = 1;
+        @ConfigOption
+        private SourceNestedConfig nested = new SourceNestedConfig();
+    }
+
+    public static class SourceNestedConfig {
+
+        @ConfigOption
+        private int value;
+    }
+
+    public static class RequiredSourceConfig {
+
+        @ConfigOption(required = true)
+        private String required;
+    }
+
+    @Nested
+    @DisplayName("with constraints")
+    class Constraints {
+
+        @Test
+        @DisplayName("should accept values inside the constraints")
+        void shouldAcceptValidValues() {
+
+            ValidatedConfig config = ConfigMap.of(ValidatedConfig.class)
+                    .with(of("required", "x"), of("count", "5"), of("name", "foo"), of("tags", "a,b"))
+                    .create();
+
+            assertThat(config.count).isEqualTo(5);
+            assertThat(config.name).isEqualTo("foo");
+        }
+
+        @Test
+        @DisplayName("should report all violations together with missing required fields")
+        void shouldReportAllViolations() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(ValidatedConfig.class)
+                            .with(of("count", "11"), of("name", "Foo1"), of("tags", new ArrayList<>()))
+                            .create())
+                    .withMessageContaining("missing 1 required parameters: required")
+                    .withMessageContaining("3 invalid values")
+                    .withMessageContaining("count value must be at most 10 but was 11")
+                    .withMessageContaining("name value \"Foo1\" must match the pattern [a-z]+")
+                    .withMessageContaining("tags value must not be empty");
+        }
+
+        @Test
+        @DisplayName("should report conversion errors together with violations and missing required fields")
+        void shouldReportConversionErrorsWithViolations() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(ValidatedConfig.class)
+                            .with(of("count", "abc"), of("name", "Foo1"))
+                            .create())
+                    .withMessageContaining("missing 1 required parameters: required")
+                    .withMessageContaining("2 invalid values")
+                    .withMessageContaining("Unable to convert the config value count")
+                    .withMessageContaining("name value \"Foo1\" must match the pattern [a-z]+");
+        }
+
+        @Test
+        @DisplayName("should validate the length of strings")
+        void shouldValidateLength() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(ValidatedConfig.class)
+                            .with(of("required", "x"), of("name", "abcdefghijk"))
+                            .create())
+                    .withMessageContaining("name length must be at most 10 but was 11");
+        }
+
+        @Test
+        @DisplayName("should fail scanning constraints on unsupported fields")
+        void shouldFailOnUnsupportedType() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(InvalidConstraintConfig.class))
+                    .withMessageContaining("@Matches can only be used on string fields");
+        }
+    }
+
+    public static class ValidatedConfig {
+
+        @ConfigOption(required = true)
+        private String required;
+        @ConfigOption
+        @Min(1)
+        @Max(10)
+        private int count = 1;
+        @ConfigOption
+        @Matches("[a-z]+")
+        @Max(10)
+        private String name = "default";
+        @ConfigOption
+        @NotEmpty
+        private List<String> tags = new ArrayList<>(List.of("a"));
+    }
+
+    public static class InvalidConstraintConfig {
+
+        @ConfigOption
+        @Matches("[0-9]+")
+        private int count;
+    }
+
+    @Nested
+    @DisplayName("with maps and lists of nested configs")
+    class NestedConfigCollections {
+
+        @Test
+        @DisplayName("should map every entry of a map with the nested schema")
+        void shouldMapEntriesOfMap() {
+
+            KitsConfig config = ConfigMap.of(KitsConfig.class)
+                    .with(of("kits", Map.of(
+                            "starter", Map.of("cost", 0, "items", List.of("wooden_sword")),
+                            "vip", Map.of("cost", "100", "display", Map.of("name", "VIP"))
+                    )))
+                    .create();
+
+            assertThat(config.kits).containsOnlyKeys("starter", "vip");
+            assertThat(config.kits.get("starter").items).containsExactly("wooden_sword");
+            assertThat(config.kits.get("vip").cost).isEqualTo(100);
+            assertThat(config.kits.get("vip").display.name).isEqualTo("VIP");
+            assertThat(config.kits.get("starter").display.name).isEqualTo("kit");
+        }
+
+        @Test
+        @DisplayName("should map every element of a list with the nested schema")
+        void shouldMapElementsOfList() {
+
+            KitsConfig config = ConfigMap.of(KitsConfig.class)
+                    .with(of("rotation", List.of(Map.of("cost", 1), Map.of("cost", 2))))
+                    .create();
+
+            assertThat(config.rotation).extracting(kit -> kit.cost).containsExactly(1, 2);
+        }
+
+        @Test
+        @DisplayName("should map large maps in parallel and keep their order")
+        void shouldMapLargeMapsInParallel() {
+
+            Map<String, Object> kits = new java.util.LinkedHashMap<>();
+            for (int i = 0; i < TypeConverters.PARALLEL_THRESHOLD * 2; i++) {
+                kits.put("kit" + i, Map.of("cost", i));
+            }
+
+            KitsConfig config = ConfigMap.of(KitsConfig.class).with(of("kits", kits)).create();
+
+            assertThat(config.kits.keySet()).containsExactlyElementsOf(kits.keySet());
+            assertThat(config.kits.get("kit300").cost).isEqualTo(300);
+        }
+
+        @Test
+        @DisplayName("should report the key of invalid entries")
+        void shouldReportInvalidEntries() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(KitsConfig.class)
+                            .with(of("kits", Map.of("broken", Map.of("cost", -1))))
+                            .create())
+                    .withMessageContaining("broken")
+                    .withMessageContaining("cost value must be at least 0");
+        }
+
+        @Test
+        @DisplayName("should export nested configs as maps")
+        void shouldExportNestedConfigs() {
+
+            KitsConfig config = ConfigMap.of(KitsConfig.class)
+                    .with(of("kits", Map.of("starter", Map.of("cost", 5))))
+                    .create();
+
+            Map<String, Object> values = ConfigMap.of(KitsConfig.class).toMap(config, false);
+
+            assertThat(values.get("kits")).isEqualTo(Map.of("starter", Map.of("cost", 5, "display.name", "kit", "items", List.of())));
+        }
+    }
+
+    public static class KitsConfig {
+
+        @ConfigOption(parallel = true)
+        private Map<String, KitConfig> kits = new java.util.LinkedHashMap<>();
+        @ConfigOption
+        private List<KitConfig> rotation = new ArrayList<>();
+    }
+
+    public static class KitConfig {
+
+        @ConfigOption
+        @Min(0)
+        private int cost;
+        @ConfigOption
+        private List<String> items = new ArrayList<>();
+        @ConfigOption
+        private KitDisplay display = new KitDisplay();
+    }
+
+    public static class KitDisplay {
+
+        @ConfigOption
+        private String name = "kit";
+    }
+
+    @Nested
+    @DisplayName("with polymorphic configs")
+    class PolymorphicConfigs {
+
+        @Test
+        @DisplayName("should select the subtype by its type key")
+        void shouldSelectSubtypeByTypeKey() {
+
+            ActionsConfig config = ConfigMap.of(ActionsConfig.class)
+                    .with(of("actions", List.of(
+                            Map.of("type", "message", "text", "hi"),
+                            Map.of("type", "teleport_action", "x", 10)
+                    )), of("on_join", Map.of("type", "message", "text", "welcome")))
+                    .create();
+
+            assertThat(config.actions).hasSize(2);
+            assertThat(config.actions.get(0)).isInstanceOf(MessageAction.class)
+                    .extracting(action -> ((MessageAction) action).text).isEqualTo("hi");
+            assertThat(config.actions.get(1)).isInstanceOf(TeleportAction.class)
+                    .extracting(action -> ((TeleportAction) action).x).isEqualTo(10);
+            assertThat(config.onJoin).isInstanceOf(MessageAction.class);
+        }
+
+        @Test
+        @DisplayName("should report unknown subtypes")
+        void shouldReportUnknownSubtypes() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(ActionsConfig.class)
+                            .with(of("actions", List.of(Map.of("type", "foo"))))
+                            .create())
+                    .withMessageContaining("Unknown type \"foo\"")
+                    .withMessageContaining("message, teleport_action");
+        }
+
+        @Test
+        @DisplayName("should export the type key of subtypes")
+        void shouldExportTypeKey() {
+
+            ActionsConfig config = new ActionsConfig();
+            MessageAction action = new MessageAction();
+            action.text = "hi";
+            config.onJoin = action;
+
+            Map<String, Object> values = ConfigMap.of(ActionsConfig.class).toMap(config, true);
+
+            assertThat(values.get("on_join")).isEqualTo(Map.of("type", "message", "text", "hi"));
+        }
+    }
+
+    @ConfigSubtypes({MessageAction.class, TeleportAction.class})
+    public interface Action {
+    }
+
+    @ConfigType("message")
+    public static class MessageAction implements Action {
+
+        @ConfigOption
+        private String text;
+    }
+
+    public static class TeleportAction implements Action {
+
+        @ConfigOption
+        private int x;
+    }
+
+    public static class ActionsConfig {
+
+        @ConfigOption
+        private List<Action> actions = new ArrayList<>();
+        @ConfigOption
+        private Action onJoin;
+    }
+
+    @Nested
+    @DisplayName("with positional record reader")
+    class PositionalRecords {
+
+        @Test
+        @DisplayName("should lazily map csv rows onto positional fields")
+        void shouldMapCsvRows() {
+
+            String csv = "name,weight,chance\n"
+                    + "diamond, 5, 0.5\n"
+                    + "\n"
+                    + "\"gold, shiny\",10\n";
+
+            List<LootEntry> entries = PositionalRecordReader.of(LootEntry.class)
+                    .skipHeader(true)
+                    .stream(new java.io.StringReader(csv))
+                    .collect(java.util.stream.Collectors.toList());
+
+            assertThat(entries).extracting(entry -> entry.name, entry -> entry.weight, entry -> entry.chance)
+                    .containsExactly(tuple("diamond", 5, 0.5), tuple("gold, shiny", 10, 1.0));
+        }
+
+        @Test
+        @DisplayName("should map tab separated rows")
+        void shouldMapTsvRows() {
+
+            List<LootEntry> entries = PositionalRecordReader.of(LootEntry.class)
+                    .delimiter(PositionalRecordReader.TSV)
+                    .stream(new java.io.StringReader("iron\t3\t0.25\r\n"))
+                    .collect(java.util.stream.Collectors.toList());
+
+            assertThat(entries).extracting(entry -> entry.name, entry -> entry.weight)
+                    .containsExactly(tuple("iron", 3));
+        }
+
+        @Test
+        @DisplayName("should report the row number of invalid rows")
+        void shouldReportRowNumber() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> PositionalRecordReader.of(LootEntry.class)
+                            .stream(new java.io.StringReader("a,1\nb,2\nc,foo\n"))
+                            .forEach(entry -> {}))
+                    .withMessageStartingWith("Unable to map row 3");
+        }
+
+        @Test
+        @DisplayName("should map large files in parallel and keep their order")
+        void shouldMapFilesInParallel(@TempDir Path directory) throws Exception {
+
+            Path file = directory.resolve("loot.csv");
+            StringBuilder csv = new StringBuilder();
+            for (int i = 0; i < 20000; i++) {
+                csv.append("item").append(i).append(',').append(i).append(",0.1\n");
+            }
+            Files.writeString(file, csv);
+
+            PositionalRecordReader<LootEntry> reader = PositionalRecordReader.of(LootEntry.class);
+
+            List<Integer> weights = reader.stream(file, true)
+                    .map(entry -> entry.weight)
+                    .collect(java.util.stream.Collectors.toList());
+            assertThat(weights).hasSize(20000).isSorted();
+
+            Files.writeString(file, "broken,x\n", java.nio.file.StandardOpenOption.APPEND);
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> reader.stream(file, true).count())
+                    .withMessageContaining("row 20001");
+        }
+    }
+
+    public static class LootEntry {
+
+        @ConfigOption(position = 0, required = true)
+        private String name;
+        @ConfigOption(position = 1)
+        private int weight;
+        @ConfigOption(position = 2)
+        private double chance = 1.0;
+    }
+
+    @Nested
+    @DisplayName("with key value file reader")
+    class KeyValueFiles {
+
+        @Test
+        @DisplayName("should only read the declared keys")
+        void shouldReadDeclaredKeys(@TempDir Path directory) throws Exception {
+
+            Path file = directory.resolve("settings.properties");
+            Files.writeString(file, "# generated\n"
+                    + "chunk.0.0.biome = plains\n"
+                    + "name=foo\n"
+                    + "  count : 5\r\n"
+                    + "unknown=bar\n"
+                    + "name=bar");
+
+            List<KeyValuePair> pairs = KeyValueFileReader.of(ConfigSchema.of(SourceConfig.class)).read(file);
+
+            assertThat(pairs).extracting(pair -> pair.getKey().get(), pair -> pair.getValue().get())
+                    .containsExactly(tuple("count", "5"), tuple("name", "bar"));
+            assertThat(ConfigMap.of(SourceConfig.class).with(pairs).create())
+                    .extracting(config -> config.name, config -> config.count)
+                    .containsExactly("bar", 5);
+        }
+
+        @Test
+        @DisplayName("should read files in multiple chunks")
+        void shouldReadInChunks(@TempDir Path directory) throws Exception {
+
+            Path file = directory.resolve("settings.properties");
+            StringBuilder content = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                content.append("unknown.").append(i).append("=value\n");
+            }
+            content.append("nested.value=42\n");
+            Files.writeString(file, content);
+
+            KeyValueFileReader reader = KeyValueFileReader.of(ConfigSchema.of(SourceConfig.class)).chunkSize(64);
+
+            assertThat(reader.read(file)).extracting(pair -> pair.getKey().get(), pair -> pair.getValue().get())
+                    .containsExactly(tuple("nested.value", "42"));
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> reader.chunkSize(8).read(file))
+                    .withMessageContaining("longer than 8 bytes");
+        }
+    }
+
+    @Nested
+    @DisplayName("with config snapshots")
+    class Snapshots {
+
+        @Test
+        @DisplayName("should restore config objects from the snapshot")
+        void shouldRestoreFromSnapshot(@TempDir Path directory) throws Exception {
+
+            Path source = Files.writeString(directory.resolve("kits.yml"), "kits");
+            Path snapshot = directory.resolve("kits.snapshot");
+            ConfigSchema<SnapshotConfig> schema = ConfigSchema.of(SnapshotConfig.class);
+            int[] loads = {0};
+            java.util.function.Function<Path, Map<String, SnapshotConfig>> loader = path -> {
+                loads[0]++;
+                ConfigMap<SnapshotConfig> configMap = ConfigMap.of(schema);
+                return Map.of(
+                        "starter", configMap.with(of("name", "starter"), of("ids", "1,2,3"), of("mode", "SECOND"),
+                                of("kits", Map.of("a", Map.of("cost", 3)))).create(),
+                        "vip", configMap.with(of("name", "vip"), of("tags", "a,b")).create()
+                );
+            };
+
+            Map<String, SnapshotConfig> loaded = ConfigSnapshot.load(snapshot, source, schema, loader);
+            Map<String, SnapshotConfig> restored = ConfigSnapshot.load(snapshot, source, schema, loader);
+
+            assertThat(loads[0]).isEqualTo(1);
+            assertThat(restored).containsOnlyKeys("starter", "vip");
+            SnapshotConfig starter = restored.get("starter");
+            assertThat(starter).isNotSameAs(loaded.get("starter"));
+            assertThat(starter.name).isEqualTo("starter");
+            assertThat(starter.ids).containsExactly(1, 2, 3);
+            assertThat(starter.mode).isEqualTo(CacheMode.SECOND);
+            assertThat(starter.kits.get("a").cost).isEqualTo(3);
+            assertThat(restored.get("vip").tags).containsExactly("a", "b");
+        }
+
+        @Test
+        @DisplayName("should rebuild the snapshot if the source file changed")
+        void shouldRebuildStaleSnapshot(@TempDir Path directory) throws Exception {
+
+            Path source = Files.writeString(directory.resolve("kits.yml"), "kits");
+            Path snapshot = directory.resolve("kits.snapshot");
+            ConfigSchema<SnapshotConfig> schema = ConfigSchema.of(SnapshotConfig.class);
+
+            ConfigSnapshot.write(snapshot, source, schema, Map.of("starter", new SnapshotConfig()));
+            assertThat(ConfigSnapshot.read(snapshot, source, schema)).isPresent();
+
+            Files.writeString(source, "changed kits");
+            assertThat(ConfigSnapshot.read(snapshot, source, schema)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should detect snapshots of a different schema")
+        void shouldDetectSchemaChanges(@TempDir Path directory) throws Exception {
+
+            Path source = Files.writeString(directory.resolve("kits.yml"), "kits");
+            Path snapshot = directory.resolve("kits.snapshot");
+
+            ConfigSnapshot.write(snapshot, source, ConfigSchema.of(SnapshotConfig.class), Map.of("starter", new SnapshotConfig()));
+
+            assertThat(ConfigSchema.of(SourceConfig.class).fingerprint()).isNotEqualTo(ConfigSchema.of(SnapshotConfig.class).fingerprint());
+            assertThat(ConfigSnapshot.read(snapshot, source, ConfigSchema.of(SourceConfig.class))).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should detect changes of nested config classes")
+        void shouldDetectNestedSchemaChanges() throws Exception {
+
+            ClassLoader original = new ReloadingClassLoader(SnapshotEntries.class, SnapshotEntry.class);
+            ClassLoader changed = new ReloadingClassLoader(SnapshotEntries.class, SnapshotEntry.class)
+                    .replace(SnapshotEntry.class, SnapshotEntrx.class);
+
+            long fingerprint = ConfigSchema.of(original.loadClass(SnapshotEntries.class.getName())).fingerprint();
+
+            assertThat(fingerprint).isEqualTo(ConfigSchema.of(SnapshotEntries.class).fingerprint());
+            assertThat(ConfigSchema.of(changed.loadClass(SnapshotEntries.class.getName())).fingerprint()).isNotEqualTo(fingerprint);
+        }
+
+        @Test
+        @DisplayName("should detect changes of config subtypes")
+        void shouldDetectSubtypeSchemaChanges() throws Exception {
+
+            ClassLoader original = new ReloadingClassLoader(SnapshotActions.class, SnapshotAction.class, SnapshotMessage.class);
+            ClassLoader changed = new ReloadingClassLoader(SnapshotActions.class, SnapshotAction.class, SnapshotMessage.class)
+                    .replace(SnapshotMessage.class, SnapshotMessagx.class);
+
+            long fingerprint = ConfigSchema.of(original.loadClass(SnapshotActions.class.getName())).fingerprint();
+
+            assertThat(fingerprint).isEqualTo(ConfigSchema.of(SnapshotActions.class).fingerprint());
+            assertThat(ConfigSchema.of(changed.loadClass(SnapshotActions.class.getName())).fingerprint()).isNotEqualTo(fingerprint);
+            assertThat(ConfigSchema.of(ActionsConfig.class).fingerprint()).isNotEqualTo(fingerprint);
+        }
+    }
+
+    public static class SnapshotActions {
+
+        @ConfigOption
+        private List<SnapshotAction> actions = new ArrayList<>();
+    }
+
+    @ConfigSubtypes(SnapshotMessage.class)
+    public interface SnapshotAction {
+    }
+
+    @ConfigType("message")
+    public static class SnapshotMessage implements SnapshotAction {
+
+        @ConfigOption
+        private String text;
+    }
+
+    // has a name of the same length as SnapshotMessage to replace it in a reloaded class loader,
+    // the @ConfigType avoids reading the simple name of the reloaded class
+    @ConfigType("message")
+    public static class SnapshotMessagx implements SnapshotAction {
+
+        @ConfigOption
+        private String body;
+    }
+
+    public static class SnapshotEntries {
+
+        @ConfigOption
+        private List<SnapshotEntry> entries = new ArrayList<>();
+    }
+
+    public static class SnapshotEntry {
+
+        @ConfigOption
+        private String name;
+    }
+
+    // has a name of the same length as SnapshotEntry to replace it in a reloaded class loader
+    public static class SnapshotEntrx {
+
+        @ConfigOption
+        private int amount;
+    }
+
+    public static class SnapshotConfig {
+
+        @ConfigOption
+        private String name;
+        @ConfigOption
+        private int[] ids = new int[0];
+        @ConfigOption
+        private CacheMode mode = CacheMode.FIRST;
+        @ConfigOption
+        private List<String> tags = new ArrayList<>();
+        @ConfigOption
+        private Map<String, KitConfig> kits = new java.util.HashMap<>();
+    }
+
+    @Nested
+    @DisplayName("with config interfaces")
+    class ConfigInterfaces {
+
+        @Test
+        @DisplayName("should create immutable instances of the interface")
+        void shouldCreateInterfaceInstances() {
+
+            ServerConfig config = ConfigMap.ofInterface(ServerConfig.class)
+                    .with(of("name", "lobby"), of("max_players", "50"), of("enabled", "true"), of("tags", "a,b"), of("worlds", "world,nether"))
+                    .create();
+
+            assertThat(config.getClass().isHidden()).isTrue();
+            assertThat(config.name()).isEqualTo("lobby");
+            assertThat(config.getMaxPlayers()).isEqualTo(50);
+            assertThat(config.isEnabled()).isTrue();
+            assertThat(config.tags()).containsExactly("a", "b");
+            assertThat(config.motd()).isEqualTo("Welcome");
+            assertThat(config.spawnRadius()).isEqualTo(16.0);
+            assertThat(config.displayName()).isEqualTo("LOBBY");
+
+            config.tags()[0] = "mutated";
+            assertThat(config.tags()).containsExactly("a", "b");
+            assertThatExceptionOfType(UnsupportedOperationException.class)
+                    .isThrownBy(() -> config.worlds().add("end"));
+            assertThat(config.worlds()).containsExactly("world", "nether");
+        }
+
+        @Test
+        @DisplayName("should use the result of annotated default methods as default value")
+        void shouldOverrideDefaultMethods() {
+
+            ConfigMap<ServerConfig> configMap = ConfigMap.ofInterface(ServerConfig.class);
+            ServerConfig config = configMap.with(of("name", "lobby"), of("spawn_radius", "2.5")).create();
+
+            assertThat(config.spawnRadius()).isEqualTo(2.5);
+            assertThat(config.getMaxPlayers()).isZero();
+            assertThat(configMap.schema().configFields()).containsOnlyKeys("name", "max_players", "enabled", "tags", "worlds", "motd", "spawn_radius");
+            assertThat(configMap.toMap(config, true)).containsOnly(entry("name", "lobby"), entry("spawn_radius", 2.5));
+        }
+
+        @Test
+        @DisplayName("should validate and require the getters")
+        void shouldValidateGetters() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.ofInterface(ServerConfig.class).with(of("max_players", "-1")).create())
+                    .withMessageContaining("missing 1 required parameters: name")
+                    .withMessageContaining("max_players value must be at least 0");
+        }
+
+        @Test
+        @DisplayName("should map nested config interfaces from maps")
+        void shouldMapNestedInterfaces() {
+
+            NetworkConfig config = ConfigMap.of(NetworkConfig.class)
+                    .with(of("servers", Map.of("lobby", Map.of("name", "lobby"), "pvp", Map.of("name", "pvp", "max_players", 10))))
+                    .create();
+
+            assertThat(config.servers).containsOnlyKeys("lobby", "pvp");
+            assertThat(config.servers.get("pvp").getMaxPlayers()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("should keep null values and the order of collections and maps")
+        void shouldKeepNullsAndOrder() {
+
+            Map<String, Object> aliases = new LinkedHashMap<>();
+            aliases.put("zombie", "z");
+            aliases.put("archer", null);
+            aliases.put("mage", "m");
+
+            OrderedInterfaceConfig config = ConfigMap.ofInterface(OrderedInterfaceConfig.class)
+                    .with(of("aliases", aliases), of("ranks", Arrays.asList("vip", null, "admin")), of("names", Arrays.asList("b", null, "a")))
+                    .create();
+
+            assertThat(config.aliases()).containsExactly(entry("zombie", "z"), entry("archer", null), entry("mage", "m"));
+            assertThat(config.ranks()).containsExactly("vip", null, "admin");
+            assertThat(config.names()).containsExactly("b", null, "a");
+            assertThatExceptionOfType(UnsupportedOperationException.class)
+                    .isThrownBy(() -> config.aliases().put("knight", "k"));
+            assertThatExceptionOfType(UnsupportedOperationException.class)
+                    .isThrownBy(() -> config.ranks().add("owner"));
+        }
+
+        @Test
+        @DisplayName("should reject getters that return mutable collection types")
+        void shouldRejectMutableCollectionTypes() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.ofInterface(MutableInterfaceConfig.class))
+                    .withMessageContaining("\"names\"")
+                    .withMessageContaining("mutable type ArrayList");
+        }
+
+        @Test
+        @DisplayName("should reject interfaces with methods that are no getters")
+        void shouldRejectNonGetters() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.ofInterface(InvalidInterfaceConfig.class))
+                    .withMessageContaining("\"apply\"");
+        }
+    }
+
+    public interface ServerConfig {
+
+        @ConfigOption(required = true)
+        String name();
+
+        @Min(0)
+        int getMaxPlayers();
+
+        boolean isEnabled();
+
+        String[] tags();
+
+        List<String> worlds();
+
+        @ConfigOption
+        default String motd() {
+            return "Welcome";
+        }
+
+        @ConfigOption
+        default double spawnRadius() {
+            return 16.0;
+        }
+
+        default String displayName() {
+            return name().toUpperCase();
+        }
+    }
+
+    public static class NetworkConfig {
+
+        @ConfigOption
+        private Map<String, ServerConfig> servers = new java.util.HashMap<>();
+    }
+
+    public interface OrderedInterfaceConfig {
+
+        Map<String, String> aliases();
+
+        Set<String> ranks();
+
+        List<String> names();
+    }
+
+    public interface MutableInterfaceConfig {
+
+        ArrayList<String> names();
+    }
+
+    public interface InvalidInterfaceConfig {
+
+        String name();
+
+        void apply(String value);
+    }
+
+    @Nested
+    @DisplayName("with lazy binding")
+    class LazyBinding {
+
+        @Test
+        @DisplayName("should convert values on first access")
+        void shouldConvertOnFirstAccess() {
+
+            LazyConfig<LazyBindingConfig> config = ConfigMap.of(LazyBindingConfig.class)
+                    .with(of("name", "foo"), of("count", "5"), of("tags", "a,b"))
+                    .lazy();
+
+            assertThat(config.isSet("count")).isTrue();
+            assertThat(config.isConverted("count")).isFalse();
+            assertThat(config.<Integer>get("count")).isEqualTo(5);
+            assertThat(config.isConverted("count")).isTrue();
+            assertThat(config.isConverted("tags")).isFalse();
+            assertThat(config.<Double>get("ratio")).isEqualTo(0.5);
+            assertThat(config.<List<String>>get("tags")).containsExactly("a", "b");
+            assertThat(config.<List<String>>get("tags")).isSameAs(config.get("tags"));
+        }
+
+        @Test
+        @DisplayName("should only report invalid values when they are read or validated")
+        void shouldDeferConversionErrors() {
+
+            LazyConfig<LazyBindingConfig> config = ConfigMap.of(LazyBindingConfig.class)
+                    .with(of("name", "foo"), of("count", "-1"), of("ratio", "abc"))
+                    .lazy();
+
+            assertThat(config.<String>get("name")).isEqualTo("foo");
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> config.get("count"))
+                    .withMessageContaining("count value must be at least 0");
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(config::validate)
+                    .withMessageContaining("Config has 2 invalid values")
+                    .withMessageContaining("ratio");
+        }
+
+        @Test
+        @DisplayName("should check required values while loading")
+        void shouldCheckRequiredValues() {
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> ConfigMap.of(LazyBindingConfig.class).with(of("count", "1")).lazy())
+                    .withMessageContaining("missing 1 required parameters: name");
+        }
+
+        @Test
+        @DisplayName("should not share the default values between lazy configs")
+        void shouldCopyDefaultValues() {
+
+            ConfigMap<LazyBindingConfig> configMap = ConfigMap.of(LazyBindingConfig.class).with(of("name", "foo"));
+
+            configMap.lazy().<List<String>>get("tags").add("leaked");
+
+            assertThat(configMap.lazy().<List<String>>get("tags")).isEmpty();
+            assertThat(configMap.create().tags).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should not share the converted values between created config objects")
+        void shouldCopyConvertedValues() {
+
+            LazyConfig<LazyBindingConfig> config = ConfigMap.of(LazyBindingConfig.class)
+                    .with(of("name", "foo"), of("tags", "a,b"))
+                    .lazy();
+
+            List<String> tags = config.get("tags");
+            LazyBindingConfig first = config.create();
+            first.tags.add("first");
+
+            assertThat(first.tags).isNotSameAs(tags);
+            assertThat(config.create().tags).containsExactly("a", "b");
+            assertThat(config.<List<String>>get("tags")).containsExactly("a", "b");
+        }
+
+        @Test
+        @DisplayName("should keep values that were converted to null")
+        void shouldKeepConvertedNulls() {
+
+            LazyConfig<LazyBindingConfig> config = ConfigMap.of(LazyBindingConfig.class)
+                    .with(of("name", "foo"), of("mode", " "))
+                    .lazy();
+
+            assertThat(config.<CacheMode>get("mode")).isNull();
+            assertThat(config.isSet("mode")).isTrue();
+            assertThat(config.isConverted("mode")).isTrue();
+            assertThat(config.<CacheMode>get("mode")).isNull();
+            assertThat(config.create().mode).isNull();
+        }
+
+        @Test
+        @DisplayName("should create the config object from the lazy values")
+        void shouldCreateConfig() {
+
+            LazyBindingConfig config = ConfigMap.of(LazyBindingConfig.class)
+                    .with(of("name", "foo"), of("count", "3"))
+                    .lazy()
+                    .create();
+
+            assertThat(config.name).isEqualTo("foo");
+            assertThat(config.count).isEqualTo(3);
+            assertThat(config.ratio).isEqualTo(0.5);
+        }
+    }
+
+    public static class LazyBindingConfig {
+
+        @ConfigOption(required = true)
+        private String name;
+        @ConfigOption
+        @Min(0)
+        private int count;
+        @ConfigOption
+        private double ratio = 0.5;
+        @ConfigOption
+        private List<String> tags = new ArrayList<>();
+        @ConfigOption
+        private CacheMode mode = CacheMode.FIRST;
+    }
+
+    @Nested
+    @DisplayName("with schema prewarming")
+    class SchemaPrewarming {
+
+        @Test
+        @DisplayName("should build the schemas of all config classes in the package")
+        void shouldPrewarmConfigClasses() {
+
+            PrewarmResult result = SchemaPrewarmer.forPackages("net.silthus.configmapper").prewarm();
+
+            assertThat(result.classes()).contains(KitConfig.class, ServerConfig.class, LazyBindingConfig.class);
+            assertThat(result.classes()).doesNotContain(Action.class, AbstractBaseClass.class);
+            assertThat(result.failures()).containsKey(InvalidConstraintConfig.class.getName());
+            assertThat(result.successful()).isFalse();
+            assertThat(result.elapsed()).isGreaterThanOrEqualTo(result.scanTime());
+        }
+
+        @Test
+        @DisplayName("should reuse the prewarmed schemas when creating config maps")
+        void shouldReusePrewarmedSchemas() {
+
+            SchemaPrewarmer.forPackages("net.silthus.configmapper").prewarm();
+
+            assertThat(ConfigMap.of(KitConfig.class).schema()).isSameAs(ConfigSchema.of(KitConfig.class));
+            assertThat(ConfigMap.of(LazyBindingConfig.class).schema()).isSameAs(ConfigMap.of(LazyBindingConfig.class).schema());
+        }
+    }
+
+    @Nested
+    @DisplayName("with reloaded class loaders")
+    class ClassLoaderReloading {
+
+        @Test
+        @DisplayName("should not keep reloaded class loaders alive")
+        void shouldNotLeakClassLoaders() throws Exception {
+
+            ConversionCache cache = ConversionCache.create();
+            List<java.lang.ref.WeakReference<ClassLoader>> loaders = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                loaders.add(loadReloadedConfig(cache));
+            }
+
+            for (int i = 0; i < 100 && loaders.stream().anyMatch(loader -> loader.get() != null); i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertThat(loaders).allMatch(loader -> loader.get() == null);
+            assertThat(cache.stats().size()).as("only the shared string value is cached").isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("should not keep reloaded class loaders alive without invalidating them")
+        void shouldNotLeakClassLoadersWithoutInvalidation() throws Exception {
+
+            List<java.lang.ref.WeakReference<ClassLoader>> loaders = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                loaders.add(loadReloadedConfig(null));
+            }
+
+            for (int i = 0; i < 100 && loaders.stream().anyMatch(loader -> loader.get() != null); i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+
+            assertThat(loaders).allMatch(loader -> loader.get() == null);
+        }
+
+        /**
+         * Maps a reloaded config class and invalidates its class loader if a conversion cache is used.
+         */
+        @SuppressWarnings("unchecked")
+        private java.lang.ref.WeakReference<ClassLoader> loadReloadedConfig(ConversionCache cache) throws Exception {
+
+            ReloadingClassLoader loader = new ReloadingClassLoader(ReloadableConfig.class, ReloadableMode.class);
+            Class<Object> configClass = (Class<Object>) loader.loadClass(ReloadableConfig.class.getName());
+            assertThat(configClass).isNotEqualTo(ReloadableConfig.class);
+
+            ConfigMap<Object> configMap = ConfigMap.of(ConfigSchema.of(configClass));
+            if (cache != null) configMap = configMap.cache(cache);
+            Object config = configMap.with(of("name", "foo"), of("mode", "SECOND")).create();
+            assertThat(configMap.toMap(config, false)).containsEntry("name", "foo").containsEntry("mode", "SECOND");
+            if (cache != null) assertThat(ConfigMap.invalidate(loader)).isGreaterThanOrEqualTo(1);
+
+            return new java.lang.ref.WeakReference<>(loader);
+        }
+    }
+
+    public static class ReloadableConfig {
+
+        @ConfigOption
+        private String name;
+        @ConfigOption
+        private ReloadableMode mode = ReloadableMode.FIRST;
+    }
+
+    public enum ReloadableMode {
+        FIRST,
+        SECOND
+    }
+
+    static class ReloadingClassLoader extends ClassLoader {
+
+        private final Set<String> names;
+        private final Map<String, String> replacements = new java.util.HashMap<>();
+
+        ReloadingClassLoader(Class<?>... classes) {
+            super(ConfigMapTests.class.getClassLoader());
+            this.names = java.util.Arrays.stream(classes).map(Class::getName).collect(java.util.stream.Collectors.toSet());
+        }
+
+        /**
+         * Defines the given class from the bytes of the replacement, which must have a name of the same length.
+         */
+        ReloadingClassLoader replace(Class<?> type, Class<?> replacement) {
+
+            assertThat(replacement.getName()).hasSameSizeAs(type.getName());
+            replacements.put(type.getName(), replacement.getName());
+            return this;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+            if (!names.contains(name)) return super.loadClass(name, resolve);
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded != null) return loaded;
+                String source = replacements.getOrDefault(name, name);
+                try (java.io.InputStream in = getParent().getResourceAsStream(source.replace('.', '/') + ".class")) {
+                    byte[] bytes = in.readAllBytes();
+                    if (!source.equals(name)) {
+                        bytes = new String(bytes, java.nio.charset.StandardCharsets.ISO_8859_1)
+                                .replace(simpleName(source), simpleName(name))
+                                .getBytes(java.nio.charset.StandardCharsets.ISO_8859_1);
+                    }
+                    return defineClass(name, bytes, 0, bytes.length);
+                } catch (java.io.IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+
+        private static String simpleName(String name) {
+
+            return name.substring(name.lastIndexOf('$') + 1);
+        }
+    }
+
+    @Nested
+    @DisplayName("with positioned arguments")
+    class PositionedArguments {
+
+        @Test
+        @DisplayName("should bind the arguments by their position")
+        void shouldBindArguments() {
+
+            LootEntry entry = ConfigMap.of(LootEntry.class).createFromArguments("diamond", "5");
+
+            assertThat(entry).extracting(e -> e.name, e -> e.weight, e -> e.chance)
+                    .containsExactly("diamond", 5, 1.0);
+        }
+
+        @Test
+        @DisplayName("should bind all arguments to the only config field")
+        void shouldBindSingleField() {
+
+            SingleFieldConfig config = ConfigMap.of(SingleFieldConfig.class).applyArguments(new SingleFieldConfig(), "foo");
+
+            assertThat(config.message).isEqualTo("foo");
+        }
+
+        @Test
+        @DisplayName("should report missing required arguments and unknown positions")
+        void shouldValidateArguments() {
+
+            ConfigMap<LootEntry> configMap = ConfigMap.of(LootEntry.class);
+
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(configMap::createFromArguments)
+                    .withMessageContaining("name");
+            assertThatExceptionOfType(ConfigurationException.class)
+                    .isThrownBy(() -> configMap.createFromArguments("diamond", 5, 0.5, "foo"))
+                    .withMessageContaining("3");
+        }
+
+        @Test
+        @DisplayName("should create immutable configs from the arguments")
+        void shouldCreateRecords() {
+
+            PositionedRecord record = ConfigMap.of(PositionedRecord.class).createFromArguments("foo", 3);
+
+            assertThat(record).isEqualTo(new PositionedRecord("foo", 3));
+        }
+
+        @Test
+        @DisplayName("should keep all positioned key value pairs")
+        void shouldKeepPositionedPairs() {
+
+            LootEntry entry = ConfigMap.of(LootEntry.class)
+                    .with(of(null, "diamond"))
+                    .with(of(null, 5))
+                    .create();
+
+            assertThat(entry).extracting(e -> e.name, e -> e.weight)
+                    .containsExactly("diamond", 5);
+        }
+    }
+
+    @Nested
+    @DisplayName("with allocation budgets")
+    class AllocationBudgets {
+
+        private final ConfigMap<LootEntry> configMap = ConfigMap.of(LootEntry.class);
+        private final ConfigMap<LootEntry> loaded = configMap.with(of("name", "diamond"), of("weight", 5), of("chance", 0.5));
+        private final LootEntry entry = new LootEntry();
+
+        @Test
+        @DisplayName("should apply loaded values within the budget")
+        void shouldApplyWithinBudget() {
+
+            AllocationMeter.assertAllocatesAtMost("applyTo", 1_024, () -> loaded.applyTo(entry));
+        }
+
+        @Test
+        @DisplayName("should merge key value pairs within the budget")
+        void shouldMergeWithinBudget() {
+
+            List<KeyValuePair> pairs = List.of(of("weight", 7));
+
+            AllocationMeter.assertAllocatesAtMost("with", 1_024, () -> loaded.with(pairs));
+        }
+
+        @Test
+        @DisplayName("should export config objects within the budget")
+        void shouldExportWithinBudget() {
+
+            AllocationMeter.assertAllocatesAtMost("toKeyValuePairs", 384, () -> configMap.toKeyValuePairs(entry));
+        }
+
+        @Test
+        @DisplayName("should parse arrays within the budget")
+        void shouldParseArraysWithinBudget() {
+
+            AllocationMeter.assertAllocatesAtMost("toArray", 1_536, () -> ReflectionUtil.toArray(int.class, "1,2,3"));
+        }
+
+        @Test
+        @DisplayName("should bind positioned arguments within the budget")
+        void shouldBindArgumentsWithinBudget() {
+
+            AllocationMeter.assertAllocatesAtMost("applyArguments", 256, () -> configMap.applyArguments(entry, "diamond", "5"));
+        }
+    }
+
+    public static class SingleFieldConfig {
+
+        @ConfigOption
+        private String message;
+    }
+
+    public record PositionedRecord(@ConfigOption(position = 0, required = true) String name,
+                                   @ConfigOption(position = 1) int amount) {
     }
 
     @Nested
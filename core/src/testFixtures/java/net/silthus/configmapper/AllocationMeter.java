@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 ART-Framework Contributors (https://github.com/Silthus/art-framework)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.silthus.configmapper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Measures the bytes the current thread allocates per operation to guard the allocation budgets of the hot paths.
+ * <p>Every operation is warmed up first, so that the measured numbers reflect the jit compiled code
+ * and not class loading or the first build of a schema. The lowest average of a few measuring rounds is used,
+ * which filters out allocations of unrelated jvm activity like the jit compiler or the gc.
+ * <p>Tests are skipped on jvms that cannot measure thread allocations.
+ * <p>{@link #retainedBytes(Supplier)} measures the heap that stays reachable through the result of an operation instead.
+ */
+public final class AllocationMeter {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 10_000;
+    private static final int ROUNDS = 5;
+
+    @SuppressWarnings("unused")
+    private static volatile Object sink;
+
+    /**
+     * Asserts that the given operation allocates at most the given number of bytes per invocation.
+     *
+     * @param name the name of the operation used in the failure message
+     * @param budget the maximum number of bytes an invocation may allocate
+     * @param operation the operation, its result is kept alive to prevent the jit from removing allocations
+     */
+    public static void assertAllocatesAtMost(String name, long budget, Supplier<?> operation) {
+
+        long bytes = bytesPerOperation(operation);
+        assertThat(bytes)
+                .withFailMessage("%s allocated %d bytes per operation, but the budget is %d bytes", name, bytes, budget)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    /**
+     * Measures the average number of bytes the given operation allocates per invocation.
+     *
+     * @param operation the operation, its result is kept alive to prevent the jit from removing allocations
+     * @return the allocated bytes per invocation
+     */
+    public static long bytesPerOperation(Supplier<?> operation) {
+
+        com.sun.management.ThreadMXBean threads = threadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP; i++) {
+            sink = operation.get();
+        }
+
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink = operation.get();
+            }
+            long after = threads.getThreadAllocatedBytes(thread);
+            lowest = Math.min(lowest, (after - before) / ITERATIONS);
+        }
+        sink = null;
+        return lowest;
+    }
+
+    /**
+     * Measures the heap that is retained by the result of the given operation after a full gc.
+     * <p>Use results that retain at least a few megabytes, smaller results are hidden by the noise of the heap usage.
+     *
+     * @param operation the operation, its result is kept alive until the heap was measured
+     * @return the retained bytes of the result
+     */
+    public static long retainedBytes(Supplier<?> operation) {
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long before = usedHeapAfterGc(memory);
+        Object result = operation.get();
+        long after = usedHeapAfterGc(memory);
+        Reference.reachabilityFence(result);
+        return after - before;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+
+        for (int i = 0; i < 3; i++) {
+            memory.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean() {
+
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "the jvm does not support measuring thread allocations");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "the jvm does not support measuring thread allocations");
+        if (!threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        return threads;
+    }
+
+    private AllocationMeter() {
+    }
+}